@@ -0,0 +1,65 @@
+package com.ahorrapp;
+
+import com.ahorrapp.model.Category;
+import com.ahorrapp.model.Money;
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Datos sintéticos con la forma de los de producción, generados con semilla fija para que las corridas sean comparables
+public final class BenchmarkData {
+
+    private static final String[] CATEGORIES = { "Supermercado", "Transporte", "Sueldo", "Servicios", "Salidas",
+            "Salud", "Alquiler", "Regalos" };
+
+    private BenchmarkData() {
+    }
+
+    public static List<Transaction> transactions(int size) {
+        Random random = new Random(42);
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("bench@ahorrapp.com");
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            Category category = new Category();
+            category.setId((long) i + 1);
+            category.setUserId(user.getId());
+            category.setName(CATEGORIES[i]);
+            categories.add(category);
+        }
+
+        LocalDateTime date = LocalDateTime.of(2025, 1, 1, 9, 30);
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i + 1);
+            transaction.setUser(user);
+            transaction.setCategory(categories.get(random.nextInt(categories.size())));
+            transaction.setType(random.nextInt(5) == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            transaction.setAmount(Math.round(random.nextDouble() * 100_000));
+            transaction.setCurrency(Money.DEFAULT_CURRENCY);
+            transaction.setDescription("Compra número " + i);
+            transaction.setDate(date.minusHours(i * 7L));
+            if (i % 10 == 0) {
+                transaction.setImageHash(String.format("%064x", i));
+                transaction.setImageSize(150_000L + i);
+            }
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    // Bytes pseudoaleatorios: se comportan como un JPEG ya comprimido frente al base64
+    public static byte[] image(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ahorrapp.controller;
+
+import com.ahorrapp.BenchmarkData;
+import com.ahorrapp.dto.TransactionColumnsDTO;
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.util.mapperDTOModel;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+// Serialización de las respuestas de /transactions/mine (un solo documento, formato anterior con null y userId,
+// y formato en columnas) y /mine/stream (NDJSON). El setup imprime el tamaño de cada payload, crudo y con gzip.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionJsonBenchmark {
+
+    @Param({ "100", "10000" })
+    private int size;
+
+    // Misma configuración por defecto que el ObjectMapper de Spring Boot (fechas ISO, JavaTimeModule)
+    private ObjectMapper objectMapper;
+    private ObjectMapper legacyObjectMapper;
+    private Map<String, Object> payload;
+    private List<TransactionDTO> transactions;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        transactions = BenchmarkData.transactions(size).stream()
+                .map(mapperDTOModel::mapToResponseDTO)
+                .toList();
+        payload = Map.of("transactions", transactions);
+        legacyObjectMapper = Jackson2ObjectMapperBuilder.json()
+                .mixIn(TransactionDTO.class, LegacyTransactionDTO.class)
+                .build();
+        printSizes();
+    }
+
+    // Cómo se serializaba TransactionDTO antes: todos los campos, incluidos los null y el userId de cada fila
+    @JsonInclude(JsonInclude.Include.ALWAYS)
+    private abstract static class LegacyTransactionDTO {
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private Long userId;
+    }
+
+    @Benchmark
+    public byte[] mineLegacy() throws JsonProcessingException {
+        return legacyObjectMapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] mineColumnar() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("transactions", TransactionColumnsDTO.of(transactions)));
+    }
+
+    private void printSizes() {
+        try {
+            printSize("legacy", legacyObjectMapper.writeValueAsBytes(payload));
+            printSize("compact", mine());
+            printSize("columnar", mineColumnar());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void printSize(String format, byte[] json) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(json);
+        }
+        System.out.printf("%n%s, %d transactions: %d bytes, %d bytes gzip%n", format, size, json.length,
+                gzipped.size());
+    }
+
+    @Benchmark
+    public byte[] mine() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public int mineStream() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (TransactionDTO transaction : transactions) {
+            out.write(objectMapper.writeValueAsBytes(transaction));
+            out.write('\n');
+        }
+        return out.size();
+    }
+}
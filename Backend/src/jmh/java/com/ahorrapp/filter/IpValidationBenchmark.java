@@ -0,0 +1,68 @@
+package com.ahorrapp.filter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Búsqueda de una IP en la lista permitida: implementación anterior (split por request) vs. IpRangeMatcher
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IpValidationBenchmark {
+
+    private static final List<String> ALLOWED_IP_RANGES = Arrays.asList(
+            "181.0.0.0/8",
+            "186.0.0.0/8",
+            "192.168.0.0/16",
+            "127.0.0.0/8");
+
+    @Param({ "127.0.0.1", "8.8.8.8" })
+    private String ip;
+
+    private IpRangeMatcher matcher;
+
+    @Setup
+    public void setup() {
+        matcher = IpRangeMatcher.compile(ALLOWED_IP_RANGES);
+    }
+
+    @Benchmark
+    public boolean legacyStreamAndSplit() {
+        return ALLOWED_IP_RANGES.stream().anyMatch(range -> legacyIsIpInRange(ip, range));
+    }
+
+    @Benchmark
+    public boolean compiledMatcher() {
+        return matcher.matches(ip);
+    }
+
+    private static boolean legacyIsIpInRange(String ip, String cidr) {
+        try {
+            String[] parts = cidr.split("/");
+            String network = parts[0];
+            int prefix = Integer.parseInt(parts[1]);
+
+            long ipAddress = legacyIpToLong(ip);
+            long networkAddress = legacyIpToLong(network);
+
+            long mask = ~((1L << (32 - prefix)) - 1);
+
+            return (ipAddress & mask) == (networkAddress & mask);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static long legacyIpToLong(String ipAddress) {
+        String[] octets = ipAddress.split("\\.");
+        return (Long.parseLong(octets[0]) << 24)
+                | (Long.parseLong(octets[1]) << 16)
+                | (Long.parseLong(octets[2]) << 8)
+                | Long.parseLong(octets[3]);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ahorrapp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Suma de un millón de montos: Double en cada fila (el modelo anterior, un objeto Double por monto)
+ * contra centavos en un long. Correr con -prof gc: la variante boxed además asigna al construir las filas.
+ * La exactitud se verifica en MoneyTest.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AmountSumBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    public static class DoubleRow {
+        Double amount;
+
+        Double getAmount() {
+            return amount;
+        }
+    }
+
+    public static class CentsRow {
+        long amount;
+
+        long getAmount() {
+            return amount;
+        }
+    }
+
+    private List<DoubleRow> doubleRows;
+    private List<CentsRow> centsRows;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        doubleRows = new ArrayList<>(SIZE);
+        centsRows = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            long cents = Math.round(random.nextDouble() * 100_000);
+            DoubleRow doubleRow = new DoubleRow();
+            doubleRow.amount = cents / 100.0;
+            doubleRows.add(doubleRow);
+            CentsRow centsRow = new CentsRow();
+            centsRow.amount = cents;
+            centsRows.add(centsRow);
+        }
+    }
+
+    @Benchmark
+    public double sumDoubles() {
+        double sum = 0;
+        for (DoubleRow row : doubleRows) {
+            sum += row.getAmount();
+        }
+        return sum;
+    }
+
+    // Como sumaba BudgetService antes
+    @Benchmark
+    public double sumDoublesStream() {
+        return doubleRows.stream().map(DoubleRow::getAmount).mapToDouble(Double::doubleValue).sum();
+    }
+
+    @Benchmark
+    public long sumCents() {
+        long sum = 0;
+        for (CentsRow row : centsRows) {
+            sum = Math.addExact(sum, row.getAmount());
+        }
+        return sum;
+    }
+
+    // Construir las filas: el boxing de Double asigna un objeto por monto
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object buildDoubleRows() {
+        List<DoubleRow> rows = new ArrayList<>(SIZE);
+        for (CentsRow source : centsRows) {
+            DoubleRow row = new DoubleRow();
+            row.amount = source.amount / 100.0;
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object buildCentsRows() {
+        List<CentsRow> rows = new ArrayList<>(SIZE);
+        for (CentsRow source : centsRows) {
+            CentsRow row = new CentsRow();
+            row.amount = source.amount;
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.BenchmarkData;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Costo de recibir una imagen en base64 (decodificar y calcular el hash) y de servir las imágenes legacy
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageBase64Benchmark {
+
+    @Param({ "200000", "2000000" })
+    private int size;
+
+    private String base64;
+    private String mimeBase64;
+    private byte[] mimeBase64Bytes;
+
+    @Setup
+    public void setup() {
+        byte[] image = BenchmarkData.image(size);
+        base64 = Base64.getEncoder().encodeToString(image);
+        mimeBase64 = Base64.getMimeEncoder().encodeToString(image);
+        mimeBase64Bytes = mimeBase64.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Subida desde la app: base64 sin saltos de línea
+    @Benchmark
+    public byte[] decodeUpload() {
+        return Base64.getMimeDecoder().decode(base64);
+    }
+
+    @Benchmark
+    public byte[] decodeUploadWithLineBreaks() {
+        return Base64.getMimeDecoder().decode(mimeBase64);
+    }
+
+    // Lectura de un archivo .txt legacy: se decodifica directo desde los bytes, sin pasar por String
+    @Benchmark
+    public byte[] decodeLegacyFile() {
+        return Base64.getMimeDecoder().decode(mimeBase64Bytes);
+    }
+
+    @Benchmark
+    public byte[] decodeAndHash() throws NoSuchAlgorithmException {
+        byte[] bytes = Base64.getMimeDecoder().decode(base64);
+        return MessageDigest.getInstance("SHA-256").digest(bytes);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ahorrapp.util;
+
+import com.ahorrapp.BenchmarkData;
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.model.Transaction;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Entidades a DTO para /transactions/mine; correr con -prof gc para ver la asignación por lista
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionMappingBenchmark {
+
+    @Param({ "100", "10000" })
+    private int size;
+
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setup() {
+        transactions = BenchmarkData.transactions(size);
+    }
+
+    @Benchmark
+    public List<TransactionDTO> mapToResponseDTO() {
+        return transactions.stream()
+                .map(mapperDTOModel::mapToResponseDTO)
+                .toList();
+    }
+}
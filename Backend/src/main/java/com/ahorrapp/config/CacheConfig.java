@@ -0,0 +1,43 @@
+package com.ahorrapp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * Cachés de Caffeine, cada una con su propia especificación (tamaño, TTL). Las métricas (cache.gets,
+ * cache.evictions, ...) se publican en /actuator/metrics y Prometheus si la especificación incluye recordStats.
+ * Los put y evict dentro de una transacción se aplican recién después del commit: un lector concurrente
+ * no puede volver a cachear datos que la transacción todavía no confirmó.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+    public static final String CATEGORIES = "categories";
+    public static final String ROLLUPS = "rollups";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${ahorrapp.cache.users.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String usersSpec,
+            @Value("${ahorrapp.cache.categories.spec:maximumSize=10000,expireAfterWrite=30m,recordStats}") String categoriesSpec,
+            @Value("${ahorrapp.cache.rollups.spec:maximumSize=2000,expireAfterWrite=10m,recordStats}") String rollupsSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Solo existen las cachés registradas: un nombre mal escrito en una anotación falla en lugar de crear otra
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(USERS_BY_ID, Caffeine.from(usersSpec).build());
+        cacheManager.registerCustomCache(USERS_BY_EMAIL, Caffeine.from(usersSpec).build());
+        cacheManager.registerCustomCache(CATEGORIES, Caffeine.from(categoriesSpec).build());
+        cacheManager.registerCustomCache(ROLLUPS, Caffeine.from(rollupsSpec).build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ahorrapp.config;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.ahorrapp.filter.IpValidationFilter;
+
+@Configuration
+@ConditionalOnProperty(name = "ahorrapp.ip-filter.enabled", havingValue = "true")
+public class IpFilterConfig {
+
+    @Bean
+    public IpValidationFilter ipValidationFilter(
+            @Value("${ahorrapp.ip-filter.allowed-ranges}") List<String> allowedRanges,
+            @Value("${ahorrapp.ip-filter.ranges-file:}") String rangesFile) {
+        return new IpValidationFilter(allowedRanges, rangesFile.isEmpty() ? null : Path.of(rangesFile));
+    }
+
+    @Bean
+    public FilterRegistrationBean<IpValidationFilter> ipValidationFilterRegistration(IpValidationFilter filter) {
+        FilterRegistrationBean<IpValidationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
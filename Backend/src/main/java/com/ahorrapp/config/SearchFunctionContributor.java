@@ -0,0 +1,21 @@
+package com.ahorrapp.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/*
+ * ts_match(texto, consulta) para las búsquedas con Criteria. La expresión to_tsvector debe ser idéntica
+ * a la del índice idx_transactions_description_fts (V7) para que Postgres lo use.
+ * Se registra en META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern("ts_match",
+                "to_tsvector('spanish', coalesce(?1, '')) @@ plainto_tsquery('spanish', ?2)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -4,18 +4,25 @@ import com.ahorrapp.dto.UserLoginDTO;
 import com.ahorrapp.dto.UserRequestDTO;
 import com.ahorrapp.dto.UserResponseDTO;
 import com.ahorrapp.model.User;
+import com.ahorrapp.service.LoginRateLimiter;
+import com.ahorrapp.service.RefreshTokenService;
+import com.ahorrapp.service.RefreshTokenService.Rotation;
 import com.ahorrapp.service.UserService;
+import com.ahorrapp.util.AuthenticatedUser;
 import com.ahorrapp.util.JwtUtil;
 import com.ahorrapp.util.mapperDTOModel;
 
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,24 +36,27 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
-    @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody UserLoginDTO userLoginDTO, HttpServletResponse response) {
-        User user = userService.getUserByEmail(userLoginDTO.getEmail());
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
 
-        if (user != null && userService.verifyPassword(userLoginDTO.getPassword(), user.getPassword())) {
+    @Autowired
+    private RefreshTokenService refreshTokenService;
 
-            String accessToken = jwtUtil.generateAccessToken(user.getEmail());
-            String refreshToken = jwtUtil.generateRefreshToken(user.getEmail());
+    @PostMapping("/login")
+    public ResponseEntity<Map<String, Object>> login(@RequestBody UserLoginDTO userLoginDTO, HttpServletRequest request,
+            HttpServletResponse response) {
+        loginRateLimiter.checkIp(request.getRemoteAddr());
+        loginRateLimiter.checkAccount(userLoginDTO.getEmail());
+        User user = userService.getUserForLogin(userLoginDTO.getEmail());
 
-            user.setRefreshToken(refreshToken);
-            userService.updateUser(user);
+        if (user != null && userService.verifyPassword(userLoginDTO.getPassword(), user.getPassword())) {
+            if (userService.rehashPasswordIfNeeded(user, userLoginDTO.getPassword())) {
+                userService.updateUser(user);
+            }
 
-            Cookie refreshCookie = new Cookie("refreshToken", refreshToken);
-            refreshCookie.setHttpOnly(true);
-            refreshCookie.setSecure(true);
-            refreshCookie.setPath("/auth");
-            refreshCookie.setMaxAge(7 * 24 * 60 * 60); // Expira en 7 días
-            response.addCookie(refreshCookie);
+            String accessToken = jwtUtil.generateAccessToken(user.getId(), user.getEmail());
+            String refreshToken = refreshTokenService.issue(user.getId(), request.getHeader(HttpHeaders.USER_AGENT));
+            response.addCookie(refreshCookie(refreshToken));
 
             Map<String, Object> responseBody = new HashMap<>();
             responseBody.put("user", mapperDTOModel.mapToResponseDTO(user));
@@ -59,11 +69,13 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<String> logout(HttpServletResponse response) {
-        Cookie refreshCookie = new Cookie("refreshToken", "");
-        refreshCookie.setHttpOnly(true);
-        refreshCookie.setSecure(true);
-        refreshCookie.setPath("/auth");
+    public ResponseEntity<String> logout(@CookieValue(value = "refreshToken", required = false) String refreshToken,
+            HttpServletResponse response) {
+        // Cierra solo la sesión de este dispositivo
+        if (refreshToken != null && !refreshToken.isEmpty()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        Cookie refreshCookie = refreshCookie("");
         refreshCookie.setMaxAge(0);
         response.addCookie(refreshCookie);
 
@@ -71,57 +83,46 @@ public class AuthController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> register(@Valid @RequestBody UserRequestDTO user, HttpServletResponse response) {
+    public ResponseEntity<Map<String, Object>> register(@Valid @RequestBody UserRequestDTO user, HttpServletRequest request,
+            HttpServletResponse response) {
+        loginRateLimiter.checkIp(request.getRemoteAddr());
         if (userService.getUserByEmail(user.getEmail()) != null) {
             return ResponseEntity.status(400).body(Map.of("error", "User already exists"));
         }
 
         User createdUser = userService.createUser(user);
-        String accessToken = jwtUtil.generateAccessToken(user.getEmail());
-        String refreshToken = jwtUtil.generateRefreshToken(user.getEmail());
-
-        createdUser.setRefreshToken(refreshToken);
-        userService.updateUser(createdUser);
-
-         Cookie refreshCookie = new Cookie("refreshToken", refreshToken);
-         refreshCookie.setHttpOnly(true);
-         refreshCookie.setSecure(true);
-         refreshCookie.setPath("/auth");
-         refreshCookie.setMaxAge(7 * 24 * 60 * 60);
-         response.addCookie(refreshCookie);
- 
-         Map<String, Object> responseBody = new HashMap<>();
-         responseBody.put("user", mapperDTOModel.mapToResponseDTO(createdUser));
-         responseBody.put("accessToken", accessToken);
+        String accessToken = jwtUtil.generateAccessToken(createdUser.getId(), createdUser.getEmail());
+        String refreshToken = refreshTokenService.issue(createdUser.getId(), request.getHeader(HttpHeaders.USER_AGENT));
+        response.addCookie(refreshCookie(refreshToken));
+
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("user", mapperDTOModel.mapToResponseDTO(createdUser));
+        responseBody.put("accessToken", accessToken);
 
         return ResponseEntity.ok(responseBody);
     }
 
     @PostMapping("/refreshToken")
-    public ResponseEntity<Map<String, String>> refreshToken(@CookieValue(value = "refreshToken", required = false) String refreshToken) {
+    public ResponseEntity<Map<String, String>> refreshToken(@CookieValue(value = "refreshToken", required = false) String refreshToken,
+            HttpServletResponse response) {
         if (refreshToken == null || refreshToken.isEmpty()) {
             return ResponseEntity.status(400).body(Map.of("error", "Refresh Token is required"));
         }
 
-        if (!jwtUtil.validateToken(refreshToken)) {
-            return ResponseEntity.status(401).body(Map.of("error", "Invalid Refresh Token"));
-        }
-
-        String email = jwtUtil.extractEmail(refreshToken);
-        User user = userService.getUserByEmail(email);
-
-        if (user == null || !refreshToken.equals(user.getRefreshToken())) {
+        // Cada refresh rota el token de la sesión: el anterior deja de servir
+        Optional<Rotation> rotation = refreshTokenService.rotate(refreshToken);
+        Optional<AuthenticatedUser> user = rotation.flatMap(r -> userService.getUserById(r.userId()));
+        if (user.isEmpty()) {
             return ResponseEntity.status(401).body(Map.of("error", "Invalid Refresh Token"));
         }
+        response.addCookie(refreshCookie(rotation.get().token()));
 
-        // Generar nuevo Access Token
-        String newAccessToken = jwtUtil.generateAccessToken(email);
+        String newAccessToken = jwtUtil.generateAccessToken(user.get().id(), user.get().email());
         return ResponseEntity.ok(Map.of("accessToken", newAccessToken));
     }
 
     @GetMapping("/verifyToken")
     public ResponseEntity<String> verifyToken(@RequestHeader("Authorization") String token) {
-        System.out.println(token);
         token = token.substring(7); // Remove "Bearer " from token
         if (jwtUtil.validateToken(token)) {
             return ResponseEntity.ok("Token is valid");
@@ -136,4 +137,13 @@ public class AuthController {
         return ResponseEntity.ok().build();
     }
 
+    private static Cookie refreshCookie(String refreshToken) {
+        Cookie refreshCookie = new Cookie("refreshToken", refreshToken);
+        refreshCookie.setHttpOnly(true);
+        refreshCookie.setSecure(true);
+        refreshCookie.setPath("/auth");
+        refreshCookie.setMaxAge((int) RefreshTokenService.EXPIRATION.toSeconds());
+        return refreshCookie;
+    }
+
 }
@@ -0,0 +1,73 @@
+package com.ahorrapp.controller;
+
+import com.ahorrapp.dto.BudgetDTO;
+import com.ahorrapp.model.Category;
+import com.ahorrapp.service.BudgetService;
+import com.ahorrapp.service.CategoryService;
+import com.ahorrapp.util.AuthenticatedUser;
+
+import jakarta.validation.Valid;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/budgets")
+public class BudgetController {
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    // Presupuestos con lo gastado en el mes (yyyy-MM, por defecto el actual)
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getBudgets(@RequestParam(required = false) String month) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = month != null ? YearMonth.parse(month) : YearMonth.now();
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid month"));
+        }
+        return ResponseEntity.ok(Map.of("budgets", budgetService.getBudgets(getUserId(), yearMonth)));
+    }
+
+    // Crea el presupuesto, o lo actualiza si viene con id
+    @PostMapping("/save")
+    public ResponseEntity<Map<String, Object>> saveBudget(@Valid @RequestBody BudgetDTO budgetRequest) {
+        Long userId = getUserId();
+        Category category = budgetRequest.getCategory() == null || budgetRequest.getCategory().isBlank()
+                ? null
+                : categoryService.resolve(userId, budgetRequest.getCategory());
+        try {
+            return ResponseEntity.ok(Map.of("budget", budgetService.saveBudget(userId, category, budgetRequest)));
+        } catch (IllegalArgumentException e) {
+            // resolve ya confirmó la categoría; si el presupuesto no se guardó puede haber quedado sin uso
+            categoryService.deleteIfUnused(category);
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/delete")
+    public ResponseEntity<Map<String, Object>> deleteBudget(@RequestParam Long id) {
+        try {
+            categoryService.deleteIfUnused(budgetService.deleteBudget(getUserId(), id));
+            return ResponseEntity.ok(Map.of("message", "Budget deleted successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private Long getUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((AuthenticatedUser) authentication.getPrincipal()).id();
+    }
+}
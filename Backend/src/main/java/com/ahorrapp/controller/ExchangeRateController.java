@@ -0,0 +1,82 @@
+package com.ahorrapp.controller;
+
+import com.ahorrapp.model.Money;
+import com.ahorrapp.service.ExchangeRateService;
+import com.ahorrapp.util.AuthenticatedUser;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/exchange-rates")
+public class ExchangeRateController {
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    // Las cotizaciones son compartidas por todos los usuarios: solo estas cuentas pueden importarlas
+    private final Set<String> adminEmails;
+
+    public ExchangeRateController(@Value("${ahorrapp.exchange-rates.admin-emails:}") String adminEmails) {
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(email -> email.trim().toLowerCase(Locale.ROOT))
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getLatestRates() {
+        return ResponseEntity.ok(Map.of("reference", Money.DEFAULT_CURRENCY, "rates", exchangeRateService.latest()));
+    }
+
+    // Cotización vigente en una fecha (por defecto hoy): unidades de "to" por unidad de "from"
+    @GetMapping("/rate")
+    public ResponseEntity<Map<String, Object>> getRate(@RequestParam String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            String fromCurrency = Money.currency(from);
+            String toCurrency = Money.currency(to);
+            LocalDate day = date != null ? date : LocalDate.now();
+            return ResponseEntity.ok(Map.of("from", fromCurrency, "to", toCurrency, "date", day,
+                    "rate", exchangeRateService.rate(fromCurrency, toCurrency, day)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // CSV date,currency,rate; se puede repetir para corregir cotizaciones ya cargadas
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<Map<String, Object>> importRates(HttpServletRequest request) throws IOException {
+        if (!adminEmails.contains(getUser().email().toLowerCase(Locale.ROOT))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Not allowed to import exchange rates"));
+        }
+        try {
+            return ResponseEntity.ok(exchangeRateService.importCsv(request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid rates file: " + e.getMessage()));
+        }
+    }
+
+    private AuthenticatedUser getUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (AuthenticatedUser) authentication.getPrincipal();
+    }
+}
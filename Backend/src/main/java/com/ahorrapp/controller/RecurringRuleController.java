@@ -0,0 +1,69 @@
+package com.ahorrapp.controller;
+
+import com.ahorrapp.dto.RecurringRuleDTO;
+import com.ahorrapp.service.RecurringTransactionService;
+import com.ahorrapp.util.AuthenticatedUser;
+import com.ahorrapp.util.mapperDTOModel;
+
+import jakarta.validation.Valid;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/recurring")
+public class RecurringRuleController {
+
+    @Autowired
+    private RecurringTransactionService recurringTransactionService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getRules() {
+        return ResponseEntity.ok(Map.of("rules", recurringTransactionService.getRules(getUserId())));
+    }
+
+    @PostMapping("/add")
+    public ResponseEntity<Map<String, Object>> addRule(@Valid @RequestBody RecurringRuleDTO ruleRequest) {
+        try {
+            RecurringRuleDTO rule = mapperDTOModel.mapToResponseDTO(
+                    recurringTransactionService.createRule(ruleRequest, getUserId()));
+            return ResponseEntity.ok(Map.of("message", "Recurring rule created successfully", "rule", rule));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/update")
+    public ResponseEntity<Map<String, Object>> updateRule(@Valid @RequestBody RecurringRuleDTO ruleRequest) {
+        if (ruleRequest.getId() == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Recurring rule not found"));
+        }
+        try {
+            RecurringRuleDTO rule = mapperDTOModel.mapToResponseDTO(
+                    recurringTransactionService.updateRule(ruleRequest, getUserId()));
+            return ResponseEntity.ok(Map.of("message", "Recurring rule updated successfully", "rule", rule));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/delete")
+    public ResponseEntity<Map<String, Object>> deleteRule(@RequestParam Long id) {
+        try {
+            recurringTransactionService.deleteRule(id, getUserId());
+            return ResponseEntity.ok(Map.of("message", "Recurring rule deleted successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private Long getUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((AuthenticatedUser) authentication.getPrincipal()).id();
+    }
+}
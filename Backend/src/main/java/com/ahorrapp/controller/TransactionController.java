@@ -1,22 +1,52 @@
 package com.ahorrapp.controller;
 
+import com.ahorrapp.dto.TransactionColumnsDTO;
 import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.dto.TransactionSearchDTO;
 import com.ahorrapp.model.User;
+import com.ahorrapp.service.CategoryService;
+import com.ahorrapp.service.DataVersionService;
+import com.ahorrapp.service.ImageService;
+import com.ahorrapp.service.StatisticsService;
+import com.ahorrapp.service.TransactionImportService;
 import com.ahorrapp.service.TransactionService;
 import com.ahorrapp.service.UserService;
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.util.AuthenticatedUser;
+import com.ahorrapp.util.SyncToken;
+import com.ahorrapp.util.TransactionCursor;
 import com.ahorrapp.util.mapperDTOModel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionTimedOutException;
 
 @RestController
 @RequestMapping("/transactions")
@@ -30,6 +60,29 @@ public class TransactionController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private TransactionImportService transactionImportService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Formato en columnas de /mine, elegido por el cliente con el header Accept
+    public static final String COLUMNAR_JSON = "application/vnd.ahorrapp.columnar+json";
+
     @PostMapping("/add")
     public ResponseEntity<Map<String, Object>> addTransaction(
             @Valid @RequestBody TransactionDTO transactionRequest) {
@@ -37,6 +90,25 @@ public class TransactionController {
         return ResponseEntity.ok(Map.of("message", "Transaction created successfully", "transaction", transaction));
     }
 
+    // El cuerpo se lee como stream; cada fila se valida por separado y se informa su resultado
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> importJson(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(transactionImportService.importJson(request.getInputStream(), getUserId()));
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid import file: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<Map<String, Object>> importCsv(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(transactionImportService.importCsv(request.getInputStream(), getUserId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid import file: " + e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/delete")
     public ResponseEntity<Map<String, Object>> deleteTransaction(@RequestParam Long id) {
         transactionService.deleteTransaction(id, getUser());
@@ -55,16 +127,159 @@ public class TransactionController {
     }
 
     @GetMapping("/mine")
-    public ResponseEntity<Map<String, Object>> getMyTransactions() {
-        List<TransactionDTO> transactions = transactionService.getTransactionsByUserId(getUserId()).stream()
+    public ResponseEntity<Map<String, Object>> getMyTransactions(WebRequest request) {
+        Long userId = getUserId();
+        String etag = dataVersionService.etag(userId);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        List<TransactionDTO> transactions = transactionService.getTransactionsByUserId(userId);
+        return conditional(etag).body(Map.of("transactions", transactions));
+    }
+
+    @GetMapping(value = "/mine", produces = COLUMNAR_JSON)
+    public ResponseEntity<Map<String, Object>> getMyTransactionsColumnar(WebRequest request) {
+        Long userId = getUserId();
+        String etag = dataVersionService.etag(userId, "columnar");
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        List<TransactionDTO> transactions = transactionService.getTransactionsByUserId(userId);
+        return conditional(etag).body(Map.of("transactions", TransactionColumnsDTO.of(transactions)));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getMyTransactionsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "50") int limit) {
+        TransactionCursor after;
+        try {
+            after = cursor == null || cursor.isEmpty() ? null : TransactionCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid cursor"));
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<TransactionDTO> page = transactionService.getTransactionsPage(getUserId(), after, from, to, pageSize);
+
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("transactions", page);
+        responseBody.put("nextCursor",
+                page.size() == pageSize ? TransactionCursor.of(page.get(page.size() - 1)).encode() : null);
+        return ResponseEntity.ok(responseBody);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchTransactions(TransactionSearchDTO search) {
+        TransactionCursor after;
+        try {
+            after = search.getCursor() == null || search.getCursor().isEmpty() ? null
+                    : TransactionCursor.decode(search.getCursor());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid cursor"));
+        }
+        int pageSize = Math.max(1, Math.min(search.getLimit(), MAX_PAGE_SIZE));
+
+        List<Transaction> page;
+        try {
+            page = transactionService.searchTransactions(getUserId(), search, after, pageSize);
+        } catch (QueryTimeoutException | TransactionTimedOutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "The search took too long, try narrowing the filters"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        List<TransactionDTO> transactions = page.stream()
                 .map(mapperDTOModel::mapToResponseDTO)
                 .toList();
-        return ResponseEntity.ok(Map.of("transactions", transactions));
+
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("transactions", transactions);
+        responseBody.put("nextCursor",
+                page.size() == pageSize ? TransactionCursor.of(page.get(page.size() - 1)).encode() : null);
+        return ResponseEntity.ok(responseBody);
+    }
+
+    // Sin token, o con uno demasiado viejo, devuelve el historial completo con fullResync=true
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> getChanges(@RequestParam(required = false) String since) {
+        SyncToken token;
+        try {
+            token = since == null || since.isEmpty() ? null : SyncToken.decode(since);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid sync token"));
+        }
+        return ResponseEntity.ok(transactionService.getChangesSince(getUserId(), token));
+    }
+
+    @GetMapping(value = "/mine/stream", produces = "application/x-ndjson")
+    public void streamMyTransactions(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+        try {
+            transactionService.streamTransactionsByUserId(getUserId(), transaction -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(transaction));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    // Spring resuelve If-None-Match (304) y Range (206) a partir del ETag y del Resource
+    // variant=thumbnail devuelve la miniatura; mientras no esté generada se sirve el original
+    @GetMapping("/{id}/image")
+    public ResponseEntity<Resource> getTransactionImage(@PathVariable Long id,
+            @RequestParam(defaultValue = "original") String variant) throws IOException {
+        Optional<Transaction> transaction = transactionService.getTransaction(id, getUserId());
+        if (transaction.isEmpty() || transaction.get().getImageHash() == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        boolean thumbnail = variant.equals("thumbnail") && transaction.get().getThumbnail() != null;
+        Resource image = imageService.resource(thumbnail ? transaction.get().getThumbnail() : transaction.get().getImage());
+        if (!image.exists()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .eTag(thumbnail ? transaction.get().getImageHash() + "-thumbnail" : transaction.get().getImageHash())
+                .cacheControl(CacheControl.maxAge(30, TimeUnit.DAYS).cachePrivate())
+                .contentType(imageService.contentType(image))
+                .body(image);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStatistics(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String currency) {
+        if ((from != null && !from.matches("\\d{4}-\\d{2}")) || (to != null && !to.matches("\\d{4}-\\d{2}"))) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Months must use the yyyy-MM format"));
+        }
+        // Moneda desconocida o sin cotización para alguno de los meses
+        try {
+            return ResponseEntity.ok(statisticsService.getStatistics(getUserId(), from, to, currency));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<Map<String, Object>> getCategories() {
-        return ResponseEntity.ok(Map.of("categories", transactionService.getCategories(getUserId())));
+    public ResponseEntity<Map<String, Object>> getCategories(WebRequest request) {
+        Long userId = getUserId();
+        String etag = dataVersionService.etag(userId);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return conditional(etag).body(Map.of("categories", categoryService.getCategories(userId)));
     }
 
     @PostMapping("/change-categories")
@@ -77,21 +292,33 @@ public class TransactionController {
             return ResponseEntity.badRequest().body("Invalid request data");
         }
 
-        transactionService.changeCategories(getUser().getId(),newCategory, oldCategories);
+        categoryService.changeCategories(getUserId(), newCategory, oldCategories);
 
         return ResponseEntity.ok("Categories updated successfully");
     }
     
+    // El cliente debe revalidar siempre; con If-None-Match la respuesta es un 304 sin consultar la base
+    private static ResponseEntity.BodyBuilder conditional(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT);
+    }
+
+    private static ResponseEntity<Map<String, Object>> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate()).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
     private Long getUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String userEmail = authentication.getName();
-        return userService.getUserByEmail(userEmail).getId();
+        return ((AuthenticatedUser) authentication.getPrincipal()).id();
     }
 
     private User getUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String userEmail = authentication.getName();
-        return userService.getUserByEmail(userEmail);
+        Long userId = getUserId();
+        if (userService.getUserById(userId).isEmpty()) {
+            throw new IllegalArgumentException("User not found");
+        }
+        return userService.getUserReference(userId);
     }
 
 }
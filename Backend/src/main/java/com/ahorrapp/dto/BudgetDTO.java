@@ -0,0 +1,46 @@
+package com.ahorrapp.dto;
+
+import com.ahorrapp.model.BudgetStatus;
+import com.ahorrapp.util.CentsDeserializer;
+import com.ahorrapp.util.CentsSerializer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BudgetDTO {
+
+    private Long id;
+
+    // Sin categoría el presupuesto limita el total de gastos del mes
+    private String category;
+
+    @Positive(message = "El límite debe ser mayor a 0.")
+    @JsonSerialize(using = CentsSerializer.class)
+    @JsonDeserialize(using = CentsDeserializer.class)
+    private long limitAmount;
+
+    @Pattern(regexp = "[A-Za-z]{3}", message = "La moneda debe ser un código ISO 4217.")
+    private String currency;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "El aviso debe ser mayor a 0.")
+    @DecimalMax(value = "1.0", message = "El aviso no puede superar el límite.")
+    private Double warningRatio;
+
+    // yyyy-MM del mes informado en spent y status
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String month;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonSerialize(using = CentsSerializer.class)
+    private Long spent;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private BudgetStatus status;
+}
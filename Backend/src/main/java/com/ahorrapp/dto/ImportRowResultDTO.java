@@ -0,0 +1,18 @@
+package com.ahorrapp.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportRowResultDTO {
+    private int row;
+    private String status;
+    private Long id;
+    private Map<String, String> errors;
+}
@@ -0,0 +1,19 @@
+package com.ahorrapp.dto;
+
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.util.CentsSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MonthlyTotalDTO {
+    private String month;
+    private TransactionType type;
+    private String currency;
+    @JsonSerialize(using = CentsSerializer.class)
+    private Long total;
+    private Long count;
+}
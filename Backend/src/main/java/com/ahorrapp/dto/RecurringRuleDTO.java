@@ -0,0 +1,57 @@
+package com.ahorrapp.dto;
+
+import com.ahorrapp.model.RecurrenceFrequency;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.util.CentsDeserializer;
+import com.ahorrapp.util.CentsSerializer;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecurringRuleDTO {
+
+    private Long id;
+
+    @NotNull(message = "El tipo de transacción es obligatorio.")
+    private TransactionType type;
+
+    @NotBlank(message = "La categoría es obligatoria.")
+    private String category;
+
+    @Positive(message = "El monto debe ser mayor a 0.")
+    @JsonSerialize(using = CentsSerializer.class)
+    @JsonDeserialize(using = CentsDeserializer.class)
+    private long amount;
+
+    @Pattern(regexp = "[A-Za-z]{3}", message = "La moneda debe ser un código ISO 4217.")
+    private String currency;
+
+    private String description;
+
+    @NotNull(message = "La frecuencia es obligatoria.")
+    private RecurrenceFrequency frequency;
+
+    @NotNull(message = "La fecha de inicio es obligatoria.")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm[:ss]")
+    private LocalDateTime startDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm[:ss]")
+    private LocalDateTime endDate;
+
+    private Boolean active;
+
+    // Próxima ocurrencia a generar; null si la regla terminó
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm[:ss]")
+    private LocalDateTime nextRun;
+}
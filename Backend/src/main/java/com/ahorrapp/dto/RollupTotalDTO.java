@@ -0,0 +1,18 @@
+package com.ahorrapp.dto;
+
+import com.ahorrapp.model.TransactionType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Un bucket de transaction_rollups con el nombre de su categoría; StatisticsService arma los totales a partir de estas filas
+@Data
+@AllArgsConstructor
+public class RollupTotalDTO {
+    private String month;
+    private String category;
+    private TransactionType type;
+    private String currency;
+    private long total;
+    private long count;
+}
@@ -0,0 +1,66 @@
+package com.ahorrapp.dto;
+
+import com.ahorrapp.util.CentsSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import lombok.Data;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Lista de transacciones en columnas: un arreglo por campo en lugar de un objeto por fila, así los
+ * nombres de campo viajan una sola vez. Las categorías se envían una vez en `categories` y cada fila
+ * guarda su índice. Las columnas opcionales conservan los null para mantener la posición de cada fila.
+ */
+@Data
+public class TransactionColumnsDTO {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private List<String> categories = new ArrayList<>();
+    private List<Long> id;
+    private List<String> type;
+    private List<Integer> category;
+    @JsonSerialize(contentUsing = CentsSerializer.class)
+    private List<Long> amount;
+    private List<String> currency;
+    private List<String> description;
+    private List<String> date;
+    private List<String> imageEtag;
+    private List<Long> imageSize;
+
+    public static TransactionColumnsDTO of(List<TransactionDTO> transactions) {
+        int size = transactions.size();
+        TransactionColumnsDTO columns = new TransactionColumnsDTO();
+        columns.id = new ArrayList<>(size);
+        columns.type = new ArrayList<>(size);
+        columns.category = new ArrayList<>(size);
+        columns.amount = new ArrayList<>(size);
+        columns.currency = new ArrayList<>(size);
+        columns.description = new ArrayList<>(size);
+        columns.date = new ArrayList<>(size);
+        columns.imageEtag = new ArrayList<>(size);
+        columns.imageSize = new ArrayList<>(size);
+
+        Map<String, Integer> categoryIndexes = new HashMap<>();
+        for (TransactionDTO transaction : transactions) {
+            columns.id.add(transaction.getId());
+            columns.type.add(transaction.getType().name());
+            columns.category.add(categoryIndexes.computeIfAbsent(transaction.getCategory(), name -> {
+                columns.categories.add(name);
+                return columns.categories.size() - 1;
+            }));
+            columns.amount.add(transaction.getAmount());
+            columns.currency.add(transaction.getCurrency());
+            columns.description.add(transaction.getDescription());
+            columns.date.add(transaction.getDate().format(DATE_FORMAT));
+            columns.imageEtag.add(transaction.getImageEtag());
+            columns.imageSize.add(transaction.getImageSize());
+        }
+        return columns;
+    }
+}
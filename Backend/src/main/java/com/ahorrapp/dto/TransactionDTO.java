@@ -1,11 +1,26 @@
 package com.ahorrapp.dto;
 
 import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.util.CentsDeserializer;
+import com.ahorrapp.util.CentsSerializer;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import jakarta.validation.constraints.*;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
 
+// En las respuestas se omiten los null y el userId, que es siempre el del usuario autenticado
 @Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class TransactionDTO {
 
     private Long id;
@@ -16,17 +31,56 @@ public class TransactionDTO {
     @NotBlank(message = "La categoría es obligatoria.")
     private String category;
 
-    @NotNull(message = "El monto no puede estar vacío.")
+    // Centavos; en JSON es un decimal (12.34)
     @Positive(message = "El monto debe ser mayor a 0.")
-    private Double amount;
+    @JsonSerialize(using = CentsSerializer.class)
+    @JsonDeserialize(using = CentsDeserializer.class)
+    private long amount;
+
+    // Sin moneda se usa Money.DEFAULT_CURRENCY
+    @Pattern(regexp = "[A-Za-z]{3}", message = "La moneda debe ser un código ISO 4217.")
+    private String currency;
 
     private String description;
 
-    @NotBlank(message = "La fecha es obligatoria.")
-    private String date;
+    @NotNull(message = "La fecha es obligatoria.")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm[:ss]")
+    private LocalDateTime date;
 
+    // Imagen en base64, solo para subirla; se descarga por /transactions/{id}/image
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String image;
 
+    private String imageEtag;
+
+    private Long imageSize;
+
     @NotNull(message = "El ID del usuario es obligatorio.")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Long userId;
+
+    // Posición en /transactions/changes; viaja dentro del syncToken
+    @JsonIgnore
+    private Long changeId;
+
+    // Proyección de las consultas de listado (SELECT new …): solo columnas de la transacción y user_id
+    public TransactionDTO(Long id, TransactionType type, String category, long amount, String currency,
+            String description, LocalDateTime date, String imageEtag, Long imageSize, Long userId) {
+        this.id = id;
+        this.type = type;
+        this.category = category;
+        this.amount = amount;
+        this.currency = currency;
+        this.description = description;
+        this.date = date;
+        this.imageEtag = imageEtag;
+        this.imageSize = imageSize;
+        this.userId = userId;
+    }
+
+    public TransactionDTO(Long id, TransactionType type, String category, long amount, String currency,
+            String description, LocalDateTime date, String imageEtag, Long imageSize, Long userId, long changeId) {
+        this(id, type, category, amount, currency, description, date, imageEtag, imageSize, userId);
+        this.changeId = changeId;
+    }
 }
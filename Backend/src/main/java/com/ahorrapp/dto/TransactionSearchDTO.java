@@ -0,0 +1,34 @@
+package com.ahorrapp.dto;
+
+import com.ahorrapp.model.TransactionType;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Filtros de GET /transactions/search; todos opcionales
+@Data
+public class TransactionSearchDTO {
+
+    // Texto libre sobre la descripción (full-text) y el nombre de la categoría
+    private String q;
+
+    private TransactionType type;
+
+    private BigDecimal minAmount;
+
+    private BigDecimal maxAmount;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private String cursor;
+
+    private int limit = 50;
+}
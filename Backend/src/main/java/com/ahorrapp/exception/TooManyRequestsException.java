@@ -0,0 +1,16 @@
+package com.ahorrapp.exception;
+
+// Intentos de autenticación rechazados por límite de frecuencia o por saturación del hashing
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,277 @@
+package com.ahorrapp.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lista de rangos CIDR (IPv4 e IPv6) compilada una sola vez en una tabla ordenada de intervalos
+ * de 128 bits. Las IPv4 se guardan como direcciones IPv4-mapped (::ffff:a.b.c.d).
+ * La búsqueda es binaria y no reserva memoria: la dirección se parsea directamente sobre el texto.
+ */
+public final class IpRangeMatcher {
+
+    private static final long IPV4_MAPPED_PREFIX = 0x0000_ffff_0000_0000L;
+
+    private static final int VALIDATE = 0;
+    private static final int HIGH = 1;
+    private static final int LOW = 2;
+
+    private final long[] startHi;
+    private final long[] startLo;
+    private final long[] endHi;
+    private final long[] endLo;
+
+    private IpRangeMatcher(List<long[]> ranges) {
+        int size = ranges.size();
+        startHi = new long[size];
+        startLo = new long[size];
+        endHi = new long[size];
+        endLo = new long[size];
+        for (int i = 0; i < size; i++) {
+            long[] range = ranges.get(i);
+            startHi[i] = range[0];
+            startLo[i] = range[1];
+            endHi[i] = range[2];
+            endLo[i] = range[3];
+        }
+    }
+
+    public static IpRangeMatcher compile(Collection<String> cidrs) {
+        List<long[]> ranges = new ArrayList<>();
+        for (String cidr : cidrs) {
+            String value = cidr.trim();
+            if (!value.isEmpty()) {
+                ranges.add(toRange(value));
+            }
+        }
+        ranges.sort(Comparator.<long[]>comparingLong(r -> r[0] ^ Long.MIN_VALUE)
+                .thenComparingLong(r -> r[1] ^ Long.MIN_VALUE));
+
+        // Se fusionan los rangos superpuestos para que la búsqueda binaria tenga un único candidato
+        List<long[]> merged = new ArrayList<>();
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && compare(range[0], range[1], last[2], last[3]) <= 0) {
+                if (compare(range[2], range[3], last[2], last[3]) > 0) {
+                    last[2] = range[2];
+                    last[3] = range[3];
+                }
+            } else {
+                merged.add(range);
+            }
+        }
+        return new IpRangeMatcher(merged);
+    }
+
+    public int size() {
+        return startHi.length;
+    }
+
+    public boolean matches(CharSequence ip) {
+        return ip != null && matches(ip, 0, ip.length());
+    }
+
+    public boolean matches(CharSequence ip, int from, int to) {
+        while (from < to && (Character.isWhitespace(ip.charAt(from)) || ip.charAt(from) == '[')) {
+            from++;
+        }
+        while (to > from && (Character.isWhitespace(ip.charAt(to - 1)) || ip.charAt(to - 1) == ']')) {
+            to--;
+        }
+        for (int i = from; i < to; i++) {
+            if (ip.charAt(i) == '%') { // índice de zona (fe80::1%eth0)
+                to = i;
+                break;
+            }
+        }
+
+        long ipv4 = parseIpv4(ip, from, to);
+        if (ipv4 >= 0) {
+            return contains(0, IPV4_MAPPED_PREFIX | ipv4);
+        }
+        if (parseIpv6(ip, from, to, VALIDATE) == 0) {
+            return false;
+        }
+        return contains(parseIpv6(ip, from, to, HIGH), parseIpv6(ip, from, to, LOW));
+    }
+
+    private boolean contains(long hi, long lo) {
+        int low = 0;
+        int high = startHi.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare(startHi[mid], startLo[mid], hi, lo) <= 0) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return candidate >= 0 && compare(hi, lo, endHi[candidate], endLo[candidate]) <= 0;
+    }
+
+    private static long[] toRange(String cidr) {
+        int slash = cidr.indexOf('/');
+        int addressEnd = slash < 0 ? cidr.length() : slash;
+
+        long hi;
+        long lo;
+        int maxPrefix;
+        long ipv4 = parseIpv4(cidr, 0, addressEnd);
+        if (ipv4 >= 0) {
+            hi = 0;
+            lo = IPV4_MAPPED_PREFIX | ipv4;
+            maxPrefix = 32;
+        } else if (parseIpv6(cidr, 0, addressEnd, VALIDATE) != 0) {
+            hi = parseIpv6(cidr, 0, addressEnd, HIGH);
+            lo = parseIpv6(cidr, 0, addressEnd, LOW);
+            maxPrefix = 128;
+        } else {
+            throw new IllegalArgumentException("Invalid IP range: " + cidr);
+        }
+
+        int prefix;
+        try {
+            prefix = slash < 0 ? maxPrefix : Integer.parseInt(cidr.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid IP range: " + cidr, e);
+        }
+        if (prefix < 0 || prefix > maxPrefix) {
+            throw new IllegalArgumentException("Invalid IP range: " + cidr);
+        }
+        prefix += 128 - maxPrefix;
+
+        long hiMask = prefix == 0 ? 0 : prefix >= 64 ? -1L : -1L << (64 - prefix);
+        long loMask = prefix <= 64 ? 0 : -1L << (128 - prefix);
+        return new long[] { hi & hiMask, lo & loMask, hi | ~hiMask, lo | ~loMask };
+    }
+
+    // Devuelve la dirección como entero de 32 bits, o -1 si el texto no es una IPv4
+    static long parseIpv4(CharSequence s, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int i = from;
+        while (octets < 4) {
+            int value = 0;
+            int digits = 0;
+            while (i < to && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                value = value * 10 + (s.charAt(i) - '0');
+                if (++digits > 3 || value > 255) {
+                    return -1;
+                }
+                i++;
+            }
+            if (digits == 0) {
+                return -1;
+            }
+            address = (address << 8) | value;
+            octets++;
+            if (octets < 4) {
+                if (i >= to || s.charAt(i) != '.') {
+                    return -1;
+                }
+                i++;
+            }
+        }
+        return i == to ? address : -1;
+    }
+
+    /*
+     * Un solo recorrido sobre el texto que, según el modo, devuelve 1/0 (dirección válida o no)
+     * o la mitad alta/baja de la dirección. Se llama una vez por modo para no reservar un arreglo
+     * de salida en cada request.
+     */
+    private static long parseIpv6(CharSequence s, int from, int to, int mode) {
+        long headHi = 0;
+        long headLo = 0;
+        int headGroups = 0;
+        long tailHi = 0;
+        long tailLo = 0;
+        int tailGroups = 0;
+        boolean compressed = false;
+
+        int i = from;
+        if (to - from >= 2 && s.charAt(i) == ':' && s.charAt(i + 1) == ':') {
+            compressed = true;
+            i += 2;
+        } else if (i >= to || s.charAt(i) == ':') {
+            return 0;
+        }
+
+        while (i < to) {
+            int groupStart = i;
+            int value = 0;
+            int digits = 0;
+            while (i < to && s.charAt(i) != ':' && s.charAt(i) != '.') {
+                int digit = Character.digit(s.charAt(i), 16);
+                if (digit < 0 || ++digits > 4) {
+                    return 0;
+                }
+                value = (value << 4) | digit;
+                i++;
+            }
+
+            int groups = 1;
+            long groupValue = value;
+            if (i < to && s.charAt(i) == '.') { // IPv4 embebida en los últimos 32 bits
+                long ipv4 = parseIpv4(s, groupStart, to);
+                if (ipv4 < 0) {
+                    return 0;
+                }
+                groups = 2;
+                groupValue = ipv4;
+                i = to;
+            } else if (digits == 0) {
+                return 0;
+            }
+
+            if (compressed) {
+                tailHi = (tailHi << (16 * groups)) | (tailLo >>> (64 - 16 * groups));
+                tailLo = (tailLo << (16 * groups)) | groupValue;
+                tailGroups += groups;
+            } else {
+                headHi = (headHi << (16 * groups)) | (headLo >>> (64 - 16 * groups));
+                headLo = (headLo << (16 * groups)) | groupValue;
+                headGroups += groups;
+            }
+            if (headGroups + tailGroups > 8) {
+                return 0;
+            }
+
+            if (i < to) { // separador ':'
+                i++;
+                if (i < to && s.charAt(i) == ':') {
+                    if (compressed) {
+                        return 0;
+                    }
+                    compressed = true;
+                    i++;
+                } else if (i == to) {
+                    return 0;
+                }
+            }
+        }
+
+        if (compressed ? headGroups + tailGroups > 7 : headGroups != 8) {
+            return 0;
+        }
+        if (mode == VALIDATE) {
+            return 1;
+        }
+
+        // Los grupos previos a "::" ocupan la parte alta; los posteriores, la baja
+        for (int shift = headGroups; shift < 8; shift++) {
+            headHi = (headHi << 16) | (headLo >>> 48);
+            headLo = headLo << 16;
+        }
+        return mode == HIGH ? headHi | tailHi : headLo | tailLo;
+    }
+
+    private static int compare(long aHi, long aLo, long bHi, long bLo) {
+        int result = Long.compareUnsigned(aHi, bHi);
+        return result != 0 ? result : Long.compareUnsigned(aLo, bLo);
+    }
+}
@@ -1,77 +1,77 @@
 package com.ahorrapp.filter;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+@Slf4j
 public class IpValidationFilter extends OncePerRequestFilter {
 
-    private static final List<String> ALLOWED_IP_RANGES = Arrays.asList(
-            "181.0.0.0/8",
-            "186.0.0.0/8",
-            "192.168.0.0/16",
-            "127.0.0.0/8");
+    private final Path rangesFile;
+    private volatile IpRangeMatcher matcher;
+    private volatile FileTime rangesFileVersion;
+
+    // Si se indica un archivo de rangos (uno por línea, # para comentarios), reemplaza a la lista configurada
+    public IpValidationFilter(List<String> allowedRanges, Path rangesFile) {
+        this.rangesFile = rangesFile;
+        this.matcher = IpRangeMatcher.compile(allowedRanges);
+        reloadRanges();
+        log.info("IP filter enabled with {} allowed ranges", matcher.size());
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        String clientIp = getClientIp(request);
-        System.out.print("Client IP: " + clientIp);
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        boolean allowed;
+        if (forwardedFor != null && !forwardedFor.isEmpty()) {
+            int comma = forwardedFor.indexOf(','); // En caso de múltiples IPs, toma la primera.
+            allowed = matcher.matches(forwardedFor, 0, comma < 0 ? forwardedFor.length() : comma);
+        } else {
+            allowed = matcher.matches(request.getRemoteAddr());
+        }
 
-        if (isIpAllowed(clientIp)) {
+        if (allowed) {
             filterChain.doFilter(request, response);
-            System.out.println(" IP Allowed");
         } else {
+            log.warn("Rejected request: ip={} forwardedFor={} uri={}", request.getRemoteAddr(), forwardedFor,
+                    request.getRequestURI());
             response.setStatus(HttpStatus.FORBIDDEN.value());
             response.getWriter().write("Access Denied: IP not allowed.");
-            System.out.println(" IP Not Allowed");
         }
-        System.out.println(" Request: " + request.getRequestURI());
     }
 
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty()) {
-            ip = request.getRemoteAddr();
+    @Scheduled(fixedDelayString = "${ahorrapp.ip-filter.reload-interval-ms:30000}")
+    public void reloadRanges() {
+        if (rangesFile == null) {
+            return;
         }
-        return ip.split(",")[0].trim(); // En caso de múltiples IPs, toma la primera.
-    }
-
-    private boolean isIpAllowed(String ip) {
-        return ALLOWED_IP_RANGES.stream().anyMatch(range -> isIpInRange(ip, range));
-    }
-
-    private boolean isIpInRange(String ip, String cidr) {
         try {
-            String[] parts = cidr.split("/");
-            String network = parts[0];
-            int prefix = Integer.parseInt(parts[1]);
-
-            long ipAddress = ipToLong(ip);
-            long networkAddress = ipToLong(network);
-
-            long mask = ~((1L << (32 - prefix)) - 1);
-
-            return (ipAddress & mask) == (networkAddress & mask);
-        } catch (Exception e) {
-            return false;
+            FileTime version = Files.getLastModifiedTime(rangesFile);
+            if (version.equals(rangesFileVersion)) {
+                return;
+            }
+            List<String> ranges = Files.readAllLines(rangesFile).stream()
+                    .map(line -> line.replaceFirst("#.*", "").trim())
+                    .filter(line -> !line.isEmpty())
+                    .toList();
+            matcher = IpRangeMatcher.compile(ranges);
+            rangesFileVersion = version;
+            log.info("Loaded {} allowed IP ranges from {}", matcher.size(), rangesFile);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Keeping previous allowed IP ranges, could not load {}", rangesFile, e);
         }
     }
-
-    private long ipToLong(String ipAddress) {
-        String[] octets = ipAddress.split("\\.");
-        return (Long.parseLong(octets[0]) << 24)
-                | (Long.parseLong(octets[1]) << 16)
-                | (Long.parseLong(octets[2]) << 8)
-                | Long.parseLong(octets[3]);
-    }
-
 }
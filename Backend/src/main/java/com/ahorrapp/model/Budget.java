@@ -0,0 +1,64 @@
+package com.ahorrapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Límite mensual de gastos de una categoría, o del total de gastos si category es null
+@Data
+@Entity
+@Table(name = "budgets", indexes = @Index(name = "idx_budgets_user", columnList = "user_id"))
+public class Budget {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @ManyToOne
+    @JoinColumn(name = "category_id")
+    private Category category;
+
+    // Centavos en la moneda del presupuesto; los gastos en otras monedas se convierten con ExchangeRateService
+    @Column(name = "limit_cents", nullable = false)
+    private long limitAmount;
+
+    // Código ISO 4217
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    // Fracción del límite a partir de la cual el estado pasa a WARNING
+    @Column(name = "warning_ratio", nullable = false)
+    private Double warningRatio;
+
+    // Último estado evaluado y el mes (yyyy-MM) al que corresponde
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BudgetStatus status;
+
+    @Column(name = "status_month", length = 7)
+    private String statusMonth;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+}
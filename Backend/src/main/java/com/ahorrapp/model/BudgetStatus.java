@@ -0,0 +1,7 @@
+package com.ahorrapp.model;
+
+public enum BudgetStatus {
+    OK,
+    WARNING,
+    EXCEEDED
+}
@@ -0,0 +1,39 @@
+package com.ahorrapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Cotización de una moneda en un día, expresada en la moneda de referencia (Money.DEFAULT_CURRENCY)
+@Data
+@Entity
+@Table(name = "exchange_rates", uniqueConstraints = @UniqueConstraint(name = "uk_exchange_rates_currency_date", columnNames = {
+        "currency", "rate_date" }))
+public class ExchangeRate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Código ISO 4217
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate date;
+
+    // Unidades de la moneda de referencia por una unidad de currency
+    @Column(nullable = false, precision = 20, scale = 8)
+    private BigDecimal rate;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.ahorrapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Un archivo del ImageStore, identificado por su SHA-256, con la cantidad de transacciones que lo referencian
+@Data
+@Entity
+@Table(name = "image_blobs")
+public class ImageBlob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    // Último registro o liberación; el recolector respeta un período de gracia desde este momento
+    @Column(name = "touched_at", nullable = false)
+    private LocalDateTime touchedAt;
+}
@@ -0,0 +1,87 @@
+package com.ahorrapp.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Locale;
+
+/*
+ * Monto exacto: centavos (dos decimales fijos para todas las monedas) y código ISO 4217. Las entidades,
+ * los DTOs y los totales guardan el long directamente; Money se usa donde el monto cruza un borde
+ * (parseo, formato, operaciones entre montos) para no mezclar monedas ni perder centavos.
+ */
+public record Money(long cents, String currency) {
+
+    public static final int SCALE = 2;
+    // Moneda de los montos que no indican otra (y de todos los datos anteriores a la columna currency)
+    public static final String DEFAULT_CURRENCY = "ARS";
+
+    public Money {
+        currency = currency(currency);
+    }
+
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(toCents(amount), currency);
+    }
+
+    public Money plus(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot add " + other.currency + " to " + currency);
+        }
+        return new Money(Math.addExact(cents, other.cents), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(cents), currency);
+    }
+
+    public BigDecimal toDecimal() {
+        return toDecimal(cents);
+    }
+
+    @Override
+    public String toString() {
+        return format(cents) + " " + currency;
+    }
+
+    // Exacto: rechaza montos con más de dos decimales o que no entran en un long
+    public static long toCents(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid amount " + amount.toPlainString()
+                    + ": at most " + SCALE + " decimals are allowed", e);
+        }
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    // Formato decimal sin pasar por BigDecimal: 1234 -> "12.34", -5 -> "-0.05"
+    public static String format(long cents) {
+        if (cents == Long.MIN_VALUE) {
+            return toDecimal(cents).toPlainString();
+        }
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        StringBuilder text = new StringBuilder(24);
+        if (cents < 0) {
+            text.append('-');
+        }
+        return text.append(abs / 100).append('.').append(fraction < 10 ? "0" : "").append(fraction).toString();
+    }
+
+    // null es la moneda por defecto; cualquier otro valor tiene que ser un código ISO 4217 válido
+    public static String currency(String code) {
+        if (code == null || code.isBlank()) {
+            return DEFAULT_CURRENCY;
+        }
+        String normalized = code.trim().toUpperCase(Locale.ROOT);
+        try {
+            return Currency.getInstance(normalized).getCurrencyCode();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown currency " + code, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ahorrapp.model;
+
+import java.time.LocalDateTime;
+
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY,
+    YEARLY;
+
+    // Cada ocurrencia se calcula desde el inicio y no desde la anterior: un día 31 no se corre al 28 para siempre
+    public LocalDateTime occurrence(LocalDateTime start, long index) {
+        return switch (this) {
+            case DAILY -> start.plusDays(index);
+            case WEEKLY -> start.plusWeeks(index);
+            case MONTHLY -> start.plusMonths(index);
+            case YEARLY -> start.plusYears(index);
+        };
+    }
+}
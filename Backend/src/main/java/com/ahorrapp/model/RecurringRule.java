@@ -0,0 +1,98 @@
+package com.ahorrapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Transacción que se repite; RecurringTransactionService genera una fila de Transaction por ocurrencia
+@Data
+@Entity
+@Table(name = "recurring_rules", indexes = @Index(name = "idx_recurring_rules_user", columnList = "user_id"))
+public class RecurringRule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    @ManyToOne
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    // Centavos (ver Money)
+    @Column(name = "amount_cents", nullable = false)
+    private long amount;
+
+    // Código ISO 4217
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime startDate;
+
+    @Column(name = "end_date")
+    private LocalDateTime endDate;
+
+    // Ocurrencias ya generadas (o salteadas al cambiar la regla); la próxima es occurrence(startDate, occurrences)
+    @Column(nullable = false)
+    private Integer occurrences;
+
+    // null cuando la regla terminó
+    @Column(name = "next_run")
+    private LocalDateTime nextRun;
+
+    @Column(nullable = false)
+    private Boolean active;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public void advance() {
+        occurrences++;
+        schedule();
+    }
+
+    // Saltea las ocurrencias anteriores a `from`; se usa al cambiar el calendario de una regla existente
+    public void skipUntil(LocalDateTime from) {
+        occurrences = 0;
+        schedule();
+        while (nextRun != null && nextRun.isBefore(from)) {
+            advance();
+        }
+    }
+
+    private void schedule() {
+        LocalDateTime next = frequency.occurrence(startDate, occurrences);
+        nextRun = endDate != null && next.isAfter(endDate) ? null : next;
+    }
+}
@@ -4,41 +4,93 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Data
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_user_date", columnList = "user_id, date DESC, id DESC"),
+        @Index(name = "idx_transactions_user_change", columnList = "user_id, change_id, id"),
+        @Index(name = "idx_transactions_category", columnList = "category_id") }, uniqueConstraints = @UniqueConstraint(name = "uk_transactions_recurring_occurrence", columnNames = {
+                "recurring_rule_id", "date" }))
 public class Transaction {
+    // Secuencia con pool de 50 ids: permite que Hibernate agrupe los INSERT en batches JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TransactionType type;
 
-    @Column(nullable = false)
-    private String category;
+    @ManyToOne
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
 
-    @Column(nullable = false)
-    private Double amount;
+    // Centavos (ver Money)
+    @Column(name = "amount_cents", nullable = false)
+    private long amount;
+
+    // Código ISO 4217
+    @Column(nullable = false, length = 3)
+    private String currency;
 
     private String description;
 
     @Column(nullable = false)
-    private String date;
+    private LocalDateTime date;
 
     @Column(name = "image", columnDefinition = "TEXT")
     private String image;
 
-    @ManyToOne
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    @Column(name = "image_size")
+    private Long imageSize;
+
+    // Hash de los bytes subidos; no cambia cuando el procesamiento recomprime la imagen
+    @Column(name = "upload_hash", length = 64)
+    private String uploadHash;
+
+    // Miniatura generada en segundo plano; null mientras la imagen no fue procesada
+    @Column(name = "thumbnail", columnDefinition = "TEXT")
+    private String thumbnail;
+
+    // LAZY: casi siempre solo se lee el id, que el proxy resuelve sin consultar users
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    // Regla que generó la transacción; junto con la fecha identifica cada ocurrencia
+    @Column(name = "recurring_rule_id")
+    private Long recurringRuleId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Cursor de /transactions/changes; lo asigna un trigger en cada INSERT y UPDATE (ver V15)
+    @Column(name = "change_id", insertable = false, updatable = false)
+    private long changeId;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
 }
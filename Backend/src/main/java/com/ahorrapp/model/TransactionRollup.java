@@ -0,0 +1,48 @@
+package com.ahorrapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+// Totales mensuales por usuario, categoría y tipo, mantenidos incrementalmente por TransactionService
+@Data
+@Entity
+@Table(name = "transaction_rollups", uniqueConstraints = @UniqueConstraint(name = "uk_transaction_rollups_bucket", columnNames = {
+        "user_id", "month", "category_id", "type", "currency" }))
+public class TransactionRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // yyyy-MM
+    @Column(nullable = false, length = 7)
+    private String month;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    // Centavos
+    @Column(name = "total_cents", nullable = false)
+    private long total;
+
+    // Código ISO 4217
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long count;
+}
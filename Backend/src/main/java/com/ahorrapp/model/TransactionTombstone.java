@@ -0,0 +1,45 @@
+package com.ahorrapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Registro de una transacción borrada, para que la sincronización incremental informe la baja
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "transaction_tombstones", indexes = {
+        @Index(name = "idx_transaction_tombstones_user_deleted", columnList = "user_id, deleted_at"),
+        @Index(name = "idx_transaction_tombstones_user_change", columnList = "user_id, change_id") })
+public class TransactionTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Asignado por un trigger, como Transaction.changeId
+    @Column(name = "change_id", insertable = false, updatable = false)
+    private long changeId;
+
+    public TransactionTombstone(Long transactionId, Long userId, LocalDateTime deletedAt) {
+        this.transactionId = transactionId;
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ahorrapp.repository;
+
+import com.ahorrapp.model.Budget;
+import com.ahorrapp.model.Category;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    @Query("SELECT b FROM Budget b LEFT JOIN FETCH b.category WHERE b.userId = :userId ORDER BY b.id")
+    List<Budget> findByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Budget b SET b.category = :category WHERE b.userId = :userId AND b.category.id IN :categoryIds")
+    int changeCategories(@Param("userId") Long userId, @Param("category") Category category,
+            @Param("categoryIds") List<Long> categoryIds);
+}
@@ -0,0 +1,47 @@
+package com.ahorrapp.repository;
+
+import com.ahorrapp.model.Category;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    Optional<Category> findByUserIdAndName(Long userId, String name);
+
+    List<Category> findByUserIdAndNameIn(Long userId, Collection<String> names);
+
+    @Query("SELECT c.name FROM Category c WHERE c.userId = :userId ORDER BY c.name")
+    List<String> findNamesByUserId(@Param("userId") Long userId);
+
+    // Categorías del usuario cuyo nombre contiene el texto buscado (pattern viene de containsPattern)
+    @Query("SELECT c.id FROM Category c WHERE c.userId = :userId AND LOWER(c.name) LIKE :pattern ESCAPE '\\'")
+    List<Long> findIdsByUserIdAndNameLike(@Param("userId") Long userId, @Param("pattern") String pattern);
+
+    // No falla si otro request creó la misma categoría al mismo tiempo
+    @Modifying
+    @Query(value = """
+            INSERT INTO categories (user_id, name, updated_at) VALUES (:userId, :name, now())
+            ON CONFLICT (user_id, name) DO NOTHING
+            """, nativeQuery = true)
+    void insertIfAbsent(@Param("userId") Long userId, @Param("name") String name);
+
+    // Espera a los INSERT en curso que referencian la categoría (la FK toma un lock sobre esta fila)
+    @Query(value = "SELECT id FROM categories WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM categories c WHERE c.id = :id
+              AND NOT EXISTS (SELECT 1 FROM transactions t WHERE t.category_id = c.id)
+              AND NOT EXISTS (SELECT 1 FROM recurring_rules r WHERE r.category_id = c.id)
+              AND NOT EXISTS (SELECT 1 FROM budgets b WHERE b.category_id = c.id)
+            """, nativeQuery = true)
+    int deleteIfUnused(@Param("id") Long id);
+}
@@ -0,0 +1,27 @@
+package com.ahorrapp.repository;
+
+import com.ahorrapp.model.ExchangeRate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long> {
+
+    // Reimportar un archivo corrige las cotizaciones existentes en lugar de duplicarlas
+    @Modifying
+    @Query(value = "INSERT INTO exchange_rates (currency, rate_date, rate, updated_at) VALUES (:currency, :date, :rate, :now) "
+            + "ON CONFLICT (currency, rate_date) DO UPDATE SET rate = EXCLUDED.rate, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    void upsert(@Param("currency") String currency, @Param("date") LocalDate date, @Param("rate") BigDecimal rate,
+            @Param("now") LocalDateTime now);
+
+    // Versión de la tabla: si no cambió desde la última carga, no hace falta releerla
+    @Query("SELECT MAX(r.updatedAt) FROM ExchangeRate r")
+    LocalDateTime findLastUpdate();
+}
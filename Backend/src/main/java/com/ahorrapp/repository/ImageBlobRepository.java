@@ -0,0 +1,41 @@
+package com.ahorrapp.repository;
+
+import com.ahorrapp.model.ImageBlob;
+
+import jakarta.transaction.Transactional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    // Se confirma antes de escribir el archivo: si la transacción que lo va a referenciar se revierte,
+    // el blob queda con ref_count 0 y lo recolecta el GC en lugar de quedar como archivo huérfano
+    @Modifying
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Query(value = "INSERT INTO image_blobs (hash, size, ref_count, touched_at) VALUES (:hash, :size, 0, :now) "
+            + "ON CONFLICT (hash) DO UPDATE SET touched_at = :now", nativeQuery = true)
+    void register(@Param("hash") String hash, @Param("size") long size, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE image_blobs SET ref_count = ref_count + 1 WHERE hash = :hash", nativeQuery = true)
+    int acquire(@Param("hash") String hash);
+
+    @Modifying
+    @Query(value = "UPDATE image_blobs SET ref_count = ref_count - 1, touched_at = :now WHERE hash = :hash", nativeQuery = true)
+    int release(@Param("hash") String hash, @Param("now") LocalDateTime now);
+
+    // Bloquea el lote: un register/acquire concurrente del mismo hash espera a que el GC termine
+    @Query(value = "SELECT hash FROM image_blobs WHERE ref_count <= 0 AND touched_at < :cutoff "
+            + "ORDER BY touched_at LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<String> claimOrphaned(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("DELETE FROM ImageBlob b WHERE b.hash IN :hashes")
+    int deleteByHashIn(@Param("hashes") List<String> hashes);
+}
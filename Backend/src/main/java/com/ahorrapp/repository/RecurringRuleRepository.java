@@ -0,0 +1,37 @@
+package com.ahorrapp.repository;
+
+import com.ahorrapp.model.Category;
+import com.ahorrapp.model.RecurringRule;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RecurringRuleRepository extends JpaRepository<RecurringRule, Long> {
+
+    @Query("SELECT r FROM RecurringRule r JOIN FETCH r.category WHERE r.userId = :userId ORDER BY r.id")
+    List<RecurringRule> findByUserId(@Param("userId") Long userId);
+
+    /*
+     * Toma un lote de reglas vencidas de la partición user_id % partitions = partition y las bloquea
+     * hasta el commit. SKIP LOCKED hace que otra instancia (o una pasada solapada) tome reglas distintas.
+     */
+    @Query(value = """
+            SELECT * FROM recurring_rules
+            WHERE active AND next_run <= :now AND mod(user_id, :partitions) = :partition
+            ORDER BY user_id, id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<RecurringRule> claimDue(@Param("now") LocalDateTime now, @Param("partitions") int partitions,
+            @Param("partition") int partition, @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("UPDATE RecurringRule r SET r.category = :category WHERE r.userId = :userId AND r.category.id IN :categoryIds")
+    int changeCategories(@Param("userId") Long userId, @Param("category") Category category,
+            @Param("categoryIds") List<Long> categoryIds);
+}
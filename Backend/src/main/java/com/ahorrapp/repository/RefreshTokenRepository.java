@@ -0,0 +1,35 @@
+package com.ahorrapp.repository;
+
+import com.ahorrapp.model.RefreshToken;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Rotación: solo gana quien todavía presenta el hash vigente, así un token no se puede usar dos veces
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.tokenHash = :newHash, r.previousTokenHash = :oldHash, r.expiresAt = :expiresAt "
+            + "WHERE r.id = :id AND r.tokenHash = :oldHash")
+    int rotate(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.previousTokenHash = :tokenHash")
+    int deleteByPreviousTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN (SELECT id FROM refresh_tokens WHERE expires_at < :now LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
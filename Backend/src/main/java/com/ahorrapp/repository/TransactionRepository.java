@@ -1,28 +1,104 @@
 package com.ahorrapp.repository;
 
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.model.Category;
 import com.ahorrapp.model.Transaction;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
     List<Transaction> findByUserId(Long userId);
 
-    List<Transaction> findByUserIdOrderByDateDesc(Long userId);
+    /*
+     * Los listados devuelven TransactionDTO directamente (constructor expression): una sola consulta con el
+     * JOIN a categories, sin hidratar entidades ni el usuario, y nada queda en el contexto de persistencia.
+     */
+    @Query("SELECT new com.ahorrapp.dto.TransactionDTO(t.id, t.type, c.name, t.amount, t.currency, t.description, t.date, "
+            + "t.imageHash, t.imageSize, t.user.id) FROM Transaction t JOIN t.category c WHERE t.user.id = :userId ORDER BY t.date DESC, t.id DESC")
+    List<TransactionDTO> findDTOsByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT DISTINCT t.category FROM Transaction t WHERE t.user.id = :id")
-    List<String> findDistinctCategoriesByUserId(Long id);
+    @Query("SELECT new com.ahorrapp.dto.TransactionDTO(t.id, t.type, c.name, t.amount, t.currency, t.description, t.date, "
+            + "t.imageHash, t.imageSize, t.user.id) FROM Transaction t JOIN t.category c WHERE t.user.id = :userId AND t.date >= :from "
+            + "AND t.date < :to ORDER BY t.date DESC, t.id DESC")
+    List<TransactionDTO> findFirstPage(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, Limit limit);
+
+    @Query("SELECT new com.ahorrapp.dto.TransactionDTO(t.id, t.type, c.name, t.amount, t.currency, t.description, t.date, "
+            + "t.imageHash, t.imageSize, t.user.id) FROM Transaction t JOIN t.category c WHERE t.user.id = :userId AND t.date >= :from "
+            + "AND t.date < :to AND (t.date < :date OR (t.date = :date AND t.id < :id)) ORDER BY t.date DESC, t.id DESC")
+    List<TransactionDTO> findPageAfter(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, @Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
+
+    // Debe consumirse dentro de una transacción para que el driver use un cursor en lugar de traer todo
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT new com.ahorrapp.dto.TransactionDTO(t.id, t.type, c.name, t.amount, t.currency, t.description, t.date, "
+            + "t.imageHash, t.imageSize, t.user.id) FROM Transaction t JOIN t.category c WHERE t.user.id = :userId ORDER BY t.date DESC, t.id DESC")
+    Stream<TransactionDTO> streamByUserId(@Param("userId") Long userId);
+
+    // Página de /transactions/changes: filas escritas desde el token, en orden (changeId, id)
+    @Query("SELECT new com.ahorrapp.dto.TransactionDTO(t.id, t.type, c.name, t.amount, t.currency, t.description, t.date, "
+            + "t.imageHash, t.imageSize, t.user.id, t.changeId) FROM Transaction t JOIN t.category c WHERE t.user.id = :userId "
+            + "AND (t.changeId > :changeId OR (t.changeId = :changeId AND t.id > :id)) ORDER BY t.changeId, t.id")
+    List<TransactionDTO> findChangedAfter(@Param("userId") Long userId, @Param("changeId") long changeId,
+            @Param("id") long id, Limit limit);
+
+    // Límite de la próxima sincronización: toda transacción de la base con id menor ya terminó (ver V15)
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)", nativeQuery = true)
+    long currentChangeHorizon();
+
+    // Imágenes que siguen en el directorio plano anterior (el ImageStore usa el hash como nombre)
+    @Query("SELECT t FROM Transaction t WHERE t.image LIKE 'image-%'")
+    List<Transaction> findWithLegacyImage(Limit limit);
+
+    List<Transaction> findByImageHashNotNullAndThumbnailIsNullAndIdGreaterThanOrderById(Long id, Limit limit);
+
+    // Bloquea la fila hasta el commit: las imágenes que referencia no cambian mientras se liberan o reemplazan
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") Long id);
+
+    // Igual que findByIdForUpdate, solo si la imagen sigue siendo la que se procesó
+    @Query(value = "SELECT id FROM transactions WHERE id = :id AND image_hash = :hash FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockWithImage(@Param("id") Long id, @Param("hash") String hash);
+
+    // Solo aplica si la imagen no fue reemplazada mientras se procesaba
+    @Modifying
+    @Transactional
+    @Query("UPDATE Transaction t SET t.image = :image, t.imageHash = :imageHash, t.imageSize = :imageSize, "
+            + "t.thumbnail = :thumbnail, t.updatedAt = :updatedAt WHERE t.id = :id AND t.imageHash = :expectedHash")
+    int recordProcessedImage(@Param("id") Long id, @Param("expectedHash") String expectedHash,
+            @Param("image") String image, @Param("imageHash") String imageHash, @Param("imageSize") Long imageSize,
+            @Param("thumbnail") String thumbnail, @Param("updatedAt") LocalDateTime updatedAt);
+
+    boolean existsByRecurringRuleIdAndDate(Long recurringRuleId, LocalDateTime date);
+
+    // El UPDATE renueva change_id: el nombre nuevo de la categoría llega a /transactions/changes
+    @Modifying
+    @Query("UPDATE Transaction t SET t.updatedAt = :updatedAt WHERE t.category.id = :categoryId")
+    void touchByCategoryId(@Param("categoryId") Long categoryId, @Param("updatedAt") LocalDateTime updatedAt);
 
     @Modifying
     @Transactional
-    @Query("UPDATE Transaction t SET t.category = :newCategory WHERE t.user.id = :id AND t.category IN :oldCategories")
-    void changeCategories(@Param("id") Long id, @Param("newCategory") String newCategory,
-            @Param("oldCategories") List<String> oldCategories);
+    @Query("UPDATE Transaction t SET t.category = :newCategory, t.updatedAt = :updatedAt "
+            + "WHERE t.user.id = :id AND t.category.id IN :oldCategoryIds")
+    void changeCategories(@Param("id") Long id, @Param("newCategory") Category newCategory,
+            @Param("oldCategoryIds") List<Long> oldCategoryIds, @Param("updatedAt") LocalDateTime updatedAt);
 
 }
@@ -0,0 +1,65 @@
+package com.ahorrapp.repository;
+
+import com.ahorrapp.config.CacheConfig;
+import com.ahorrapp.dto.RollupTotalDTO;
+import com.ahorrapp.model.TransactionRollup;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TransactionRollupRepository extends JpaRepository<TransactionRollup, Long> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO transaction_rollups (user_id, month, category_id, type, currency, total_cents, transaction_count)
+            VALUES (:userId, :month, :categoryId, :type, :currency, :amount, :count)
+            ON CONFLICT (user_id, month, category_id, type, currency) DO UPDATE
+            SET total_cents = transaction_rollups.total_cents + EXCLUDED.total_cents,
+                transaction_count = transaction_rollups.transaction_count + EXCLUDED.transaction_count
+            """, nativeQuery = true)
+    void addToBucket(@Param("userId") Long userId, @Param("month") String month, @Param("categoryId") Long categoryId,
+            @Param("type") String type, @Param("currency") String currency, @Param("amount") long amount,
+            @Param("count") long count);
+
+    @Modifying
+    @Query(value = "DELETE FROM transaction_rollups WHERE user_id = :userId AND transaction_count <= 0", nativeQuery = true)
+    void deleteEmptyBuckets(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO transaction_rollups (user_id, month, category_id, type, currency, total_cents, transaction_count)
+            SELECT user_id, month, :newCategoryId, type, currency, SUM(total_cents), SUM(transaction_count)
+            FROM transaction_rollups
+            WHERE user_id = :userId AND category_id IN (:oldCategoryIds) AND category_id <> :newCategoryId
+            GROUP BY user_id, month, type, currency
+            ON CONFLICT (user_id, month, category_id, type, currency) DO UPDATE
+            SET total_cents = transaction_rollups.total_cents + EXCLUDED.total_cents,
+                transaction_count = transaction_rollups.transaction_count + EXCLUDED.transaction_count
+            """, nativeQuery = true)
+    void mergeCategories(@Param("userId") Long userId, @Param("newCategoryId") Long newCategoryId,
+            @Param("oldCategoryIds") List<Long> oldCategoryIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM transaction_rollups WHERE user_id = :userId AND category_id IN (:oldCategoryIds) AND category_id <> :newCategoryId", nativeQuery = true)
+    void deleteCategories(@Param("userId") Long userId, @Param("newCategoryId") Long newCategoryId,
+            @Param("oldCategoryIds") List<Long> oldCategoryIds);
+
+    // Gastos de un mes por categoría y moneda: [categoryId, currency, total]. Alcanza para evaluar todos los presupuestos del usuario
+    @Query("SELECT r.categoryId, r.currency, SUM(r.total) FROM TransactionRollup r "
+            + "WHERE r.userId = :userId AND r.month = :month AND r.type = com.ahorrapp.model.TransactionType.EXPENSE "
+            + "GROUP BY r.categoryId, r.currency")
+    List<Object[]> findExpensesByCategory(@Param("userId") Long userId, @Param("month") String month);
+
+    // Todos los buckets del usuario: son pocos (meses x categorías x tipos x monedas) y cualquier rango de
+    // meses se resuelve en memoria. StatisticsService invalida la entrada en cada cambio de los totales
+    @Cacheable(cacheNames = CacheConfig.ROLLUPS, key = "#userId")
+    @Query("SELECT new com.ahorrapp.dto.RollupTotalDTO(r.month, c.name, r.type, r.currency, r.total, r.count) "
+            + "FROM TransactionRollup r JOIN Category c ON c.id = r.categoryId "
+            + "WHERE r.userId = :userId ORDER BY r.month")
+    List<RollupTotalDTO> findTotalsByUserId(@Param("userId") Long userId);
+}
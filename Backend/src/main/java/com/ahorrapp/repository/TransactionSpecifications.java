@@ -0,0 +1,79 @@
+package com.ahorrapp.repository;
+
+import com.ahorrapp.dto.TransactionSearchDTO;
+import com.ahorrapp.model.Money;
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.util.TransactionCursor;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    /*
+     * Filtros de búsqueda de un usuario, ordenados por (date, id) descendente como /transactions/page.
+     * El texto usa la función ts_match (SearchFunctionContributor), que coincide con el índice GIN
+     * idx_transactions_description_fts, o las categorías cuyo nombre lo contiene. Esas categorías se
+     * resuelven antes (categoryIds) y se filtran por category_id, sin condiciones sobre el join, para que
+     * Postgres pueda combinar los dos índices (BitmapOr) en lugar de recorrer todas las filas del usuario.
+     */
+    public static Specification<Transaction> search(Long userId, TransactionSearchDTO search, LocalDateTime from,
+            LocalDateTime to, TransactionCursor cursor, List<Long> categoryIds) {
+        return (root, query, cb) -> {
+            // El conteo no necesita la categoría; el listado la trae en la misma sentencia
+            if (!Long.class.equals(query.getResultType())) {
+                root.fetch("category", JoinType.INNER);
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("user").get("id"), userId));
+            predicates.add(cb.greaterThanOrEqualTo(root.get("date"), from));
+            predicates.add(cb.lessThan(root.get("date"), to));
+
+            if (search.getQ() != null && !search.getQ().isBlank()) {
+                String text = search.getQ().trim();
+                // value() lo envía como parámetro; cb.literal() lo escribiría dentro del SQL
+                Expression<String> textParameter = ((HibernateCriteriaBuilder) cb).value(text);
+                Expression<Boolean> matches = cb.function("ts_match", Boolean.class, root.get("description"),
+                        textParameter);
+                predicates.add(categoryIds.isEmpty() ? cb.isTrue(matches)
+                        : cb.or(cb.isTrue(matches), root.get("category").get("id").in(categoryIds)));
+            }
+            if (search.getType() != null) {
+                predicates.add(cb.equal(root.get("type"), search.getType()));
+            }
+            if (search.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), Money.toCents(search.getMinAmount())));
+            }
+            if (search.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), Money.toCents(search.getMaxAmount())));
+            }
+            if (cursor != null) {
+                predicates.add(cb.or(cb.lessThan(root.get("date"), cursor.date()),
+                        cb.and(cb.equal(root.get("date"), cursor.date()), cb.lessThan(root.get("id"), cursor.id()))));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // Patrón LIKE para buscar el texto dentro de un nombre de categoría
+    public static String containsPattern(String text) {
+        return "%" + escapeLike(text.trim().toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,21 @@
+package com.ahorrapp.repository;
+
+import com.ahorrapp.model.TransactionTombstone;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TransactionTombstoneRepository extends JpaRepository<TransactionTombstone, Long> {
+
+    @Query("SELECT t.transactionId FROM TransactionTombstone t WHERE t.userId = :userId AND t.changeId >= :changeId")
+    List<Long> findDeletedIdsSince(@Param("userId") Long userId, @Param("changeId") long changeId);
+
+    @Modifying
+    @Query("DELETE FROM TransactionTombstone t WHERE t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -1,8 +1,25 @@
 package com.ahorrapp.repository;
 
 import com.ahorrapp.model.User;
+
+import jakarta.transaction.Transactional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
+
+    // data_version no está mapeada en User: guardar la entidad nunca pisa un incremento concurrente
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE users SET data_version = data_version + 1 WHERE id = :id", nativeQuery = true)
+    void incrementDataVersion(@Param("id") Long id);
+
+    @Query(value = "SELECT data_version FROM users WHERE id = :id", nativeQuery = true)
+    Optional<Long> findDataVersion(@Param("id") Long id);
 }
@@ -0,0 +1,163 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.dto.BudgetDTO;
+import com.ahorrapp.model.Budget;
+import com.ahorrapp.model.BudgetStatus;
+import com.ahorrapp.model.Category;
+import com.ahorrapp.model.Money;
+import com.ahorrapp.repository.BudgetRepository;
+import com.ahorrapp.repository.TransactionRollupRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/*
+ * Presupuestos mensuales. El gasto del mes sale de transaction_rollups (una consulta agrupada por
+ * categoría), así que evaluar los presupuestos cuando llega un gasto no recorre el historial.
+ * El estado guardado solo se usa para detectar cuándo un presupuesto cruza el aviso o el límite.
+ */
+@Slf4j
+@Service
+public class BudgetService {
+
+    private static final double DEFAULT_WARNING_RATIO = 0.8;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private TransactionRollupRepository rollupRepository;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    public List<BudgetDTO> getBudgets(Long userId, YearMonth month) {
+        List<Budget> budgets = budgetRepository.findByUserId(userId);
+        List<Expense> expenses = budgets.isEmpty() ? List.of() : expensesByCategory(userId, month.toString());
+        return budgets.stream()
+                .map(budget -> toDTO(budget, month.toString(), spent(budget, month, expenses)))
+                .toList();
+    }
+
+    @Transactional
+    public BudgetDTO saveBudget(Long userId, Category category, BudgetDTO budgetRequest) {
+        Budget budget;
+        if (budgetRequest.getId() != null) {
+            budget = budgetRepository.findById(budgetRequest.getId())
+                    .filter(existing -> existing.getUserId().equals(userId))
+                    .orElseThrow(() -> new IllegalArgumentException("Budget not found"));
+        } else {
+            budget = new Budget();
+            budget.setUserId(userId);
+        }
+        budget.setCategory(category);
+        budget.setLimitAmount(budgetRequest.getLimitAmount());
+        budget.setCurrency(Money.currency(budgetRequest.getCurrency()));
+        budget.setWarningRatio(budgetRequest.getWarningRatio() != null ? budgetRequest.getWarningRatio()
+                : DEFAULT_WARNING_RATIO);
+        budget.setStatus(BudgetStatus.OK);
+        budget.setStatusMonth(null);
+        budgetRepository.save(budget);
+
+        String month = YearMonth.now().toString();
+        List<Expense> expenses = expensesByCategory(userId, month);
+        long spent = spent(budget, YearMonth.now(), expenses);
+        budget.setStatus(statusOf(budget, spent));
+        budget.setStatusMonth(month);
+        return toDTO(budget, month, spent);
+    }
+
+    // Devuelve la categoría del presupuesto borrado, para que el llamador la elimine si quedó sin uso
+    @Transactional
+    public Category deleteBudget(Long userId, Long id) {
+        Budget budget = budgetRepository.findById(id)
+                .filter(existing -> existing.getUserId().equals(userId))
+                .orElseThrow(() -> new IllegalArgumentException("Budget not found"));
+        budgetRepository.delete(budget);
+        return budget.getCategory();
+    }
+
+    /*
+     * Se llama dentro de la transacción que actualizó los totales. Solo importa el mes en curso: un gasto
+     * cargado con fecha de un mes anterior no cambia el estado actual de ningún presupuesto.
+     */
+    public void onExpensesChanged(Long userId, LocalDateTime date) {
+        String month = YearMonth.now().toString();
+        if (!YearMonth.from(date).toString().equals(month)) {
+            return;
+        }
+        List<Budget> budgets = budgetRepository.findByUserId(userId);
+        if (budgets.isEmpty()) {
+            return;
+        }
+        List<Expense> expenses = expensesByCategory(userId, month);
+        for (Budget budget : budgets) {
+            BudgetStatus status = statusOf(budget, spent(budget, YearMonth.now(), expenses));
+            if (status == budget.getStatus() && month.equals(budget.getStatusMonth())) {
+                continue;
+            }
+            if (status != BudgetStatus.OK) {
+                log.info("Budget {} of user {} is {} for {}", budget.getId(), userId, status, month);
+            }
+            budget.setStatus(status);
+            budget.setStatusMonth(month);
+        }
+    }
+
+    private record Expense(Long categoryId, String currency, long cents) {
+    }
+
+    private List<Expense> expensesByCategory(Long userId, String month) {
+        return rollupRepository.findExpensesByCategory(userId, month).stream()
+                .map(row -> new Expense((Long) row[0], (String) row[1], (Long) row[2]))
+                .toList();
+    }
+
+    /*
+     * Los gastos en otra moneda se convierten con la cotización vigente al cierre del mes (para el mes en
+     * curso, la última cargada). Sin cotización no se pueden valuar y no cuentan, como antes de tenerlas.
+     */
+    private long spent(Budget budget, YearMonth month, List<Expense> expenses) {
+        LocalDate rateDate = month.atEndOfMonth();
+        long spent = 0;
+        for (Expense expense : expenses) {
+            if (budget.getCategory() != null && !budget.getCategory().getId().equals(expense.categoryId())) {
+                continue;
+            }
+            if (exchangeRateService.canConvert(expense.currency(), budget.getCurrency(), rateDate)) {
+                spent = Math.addExact(spent, exchangeRateService.convert(expense.cents(), expense.currency(),
+                        budget.getCurrency(), rateDate));
+            }
+        }
+        return spent;
+    }
+
+    private static BudgetStatus statusOf(Budget budget, long spent) {
+        if (spent > budget.getLimitAmount()) {
+            return BudgetStatus.EXCEEDED;
+        }
+        return spent >= Math.ceil(budget.getLimitAmount() * budget.getWarningRatio()) ? BudgetStatus.WARNING
+                : BudgetStatus.OK;
+    }
+
+    private static BudgetDTO toDTO(Budget budget, String month, long spent) {
+        BudgetDTO dto = new BudgetDTO();
+        dto.setId(budget.getId());
+        dto.setCategory(budget.getCategory() != null ? budget.getCategory().getName() : null);
+        dto.setLimitAmount(budget.getLimitAmount());
+        dto.setCurrency(budget.getCurrency());
+        dto.setWarningRatio(budget.getWarningRatio());
+        dto.setMonth(month);
+        dto.setSpent(spent);
+        dto.setStatus(statusOf(budget, spent));
+        return dto;
+    }
+}
@@ -0,0 +1,114 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.config.CacheConfig;
+import com.ahorrapp.model.Category;
+import com.ahorrapp.repository.BudgetRepository;
+import com.ahorrapp.repository.CategoryRepository;
+import com.ahorrapp.repository.RecurringRuleRepository;
+import com.ahorrapp.repository.TransactionRepository;
+
+import jakarta.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class CategoryService {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private RecurringRuleRepository recurringRuleRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Busca la categoría por nombre y la crea si el usuario todavía no la tiene
+    @Transactional
+    public Category resolve(Long userId, String name) {
+        return categoryRepository.findByUserIdAndName(userId, name).orElseGet(() -> {
+            categoryRepository.insertIfAbsent(userId, name);
+            evictCategories(userId);
+            return categoryRepository.findByUserIdAndName(userId, name).orElseThrow();
+        });
+    }
+
+    // El formulario de alta la pide cada vez que se abre; solo cambia cuando se crea o se elimina una categoría
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#userId")
+    public List<String> getCategories(Long userId) {
+        return List.copyOf(categoryRepository.findNamesByUserId(userId));
+    }
+
+    // Las categorías sin transacciones, reglas recurrentes ni presupuestos se eliminan. El lock de la fila
+    // ordena el borrado con los INSERT concurrentes que la referencian: si alguno confirmó, ya no se borra
+    @Transactional
+    public void deleteIfUnused(Category category) {
+        if (category != null && categoryRepository.lockById(category.getId()).isPresent()
+                && categoryRepository.deleteIfUnused(category.getId()) > 0) {
+            evictCategories(category.getUserId());
+        }
+    }
+
+    /*
+     * Renombrar una sola categoría a un nombre libre actualiza la fila y toca sus transacciones para que
+     * /transactions/changes las vuelva a enviar con el nombre nuevo. Si hay varias o el nombre
+     * ya existe, las transacciones se reasignan a la categoría destino y se combinan sus totales.
+     * Los totales cacheados guardan el nombre de la categoría, así que también se invalidan al renombrar.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#userId"),
+            @CacheEvict(cacheNames = CacheConfig.ROLLUPS, key = "#userId") })
+    public void changeCategories(Long userId, String newCategory, List<String> oldCategories) {
+        List<Category> sources = categoryRepository.findByUserIdAndNameIn(userId, oldCategories);
+        Optional<Category> existingTarget = categoryRepository.findByUserIdAndName(userId, newCategory);
+        if (existingTarget.isEmpty() && sources.size() == 1) {
+            sources.get(0).setName(newCategory);
+            transactionRepository.touchByCategoryId(sources.get(0).getId(), LocalDateTime.now());
+            dataVersionService.bump(userId);
+            return;
+        }
+
+        List<Long> sourceIds = sources.stream()
+                .map(Category::getId)
+                .filter(id -> existingTarget.isEmpty() || !id.equals(existingTarget.get().getId()))
+                .toList();
+        // Sin filas para mover no se crea la categoría destino: quedaría vacía
+        if (sourceIds.isEmpty()) {
+            return;
+        }
+        Category target = existingTarget.orElseGet(() -> resolve(userId, newCategory));
+        transactionRepository.changeCategories(userId, target, sourceIds, LocalDateTime.now());
+        recurringRuleRepository.changeCategories(userId, target, sourceIds);
+        budgetRepository.changeCategories(userId, target, sourceIds);
+        statisticsService.changeCategories(userId, target.getId(), sourceIds);
+        categoryRepository.deleteAllByIdInBatch(sourceIds);
+        dataVersionService.bump(userId);
+    }
+
+    // Dentro de una transacción, la caché lo aplica recién después del commit (ver CacheConfig)
+    private void evictCategories(Long userId) {
+        cacheManager.getCache(CacheConfig.CATEGORIES).evict(userId);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.repository.UserRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/*
+ * Versión de los datos de cada usuario, usada como ETag de los endpoints de lectura. Se guarda en
+ * users.data_version y se incrementa en la misma transacción que la escritura: si la transacción se
+ * revierte, la versión tampoco cambia, y todas las instancias leen el mismo valor.
+ */
+@Service
+public class DataVersionService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Debe leerse antes de consultar la base: así el ETag nunca es más nuevo que los datos enviados
+    public String etag(Long userId) {
+        return "\"v" + version(userId) + "\"";
+    }
+
+    // ETag de otra representación de los mismos datos (p. ej. el formato en columnas)
+    public String etag(Long userId, String variant) {
+        return "\"v" + version(userId) + "-" + variant + "\"";
+    }
+
+    // El UPDATE bloquea la fila del usuario hasta el commit, así dos escrituras nunca comparten versión
+    public void bump(Long userId) {
+        userRepository.incrementDataVersion(userId);
+    }
+
+    private long version(Long userId) {
+        return userRepository.findDataVersion(userId).orElse(0L);
+    }
+}
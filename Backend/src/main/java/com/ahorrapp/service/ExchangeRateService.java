@@ -0,0 +1,213 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.model.ExchangeRate;
+import com.ahorrapp.model.Money;
+import com.ahorrapp.repository.ExchangeRateRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/*
+ * Cotizaciones en memoria. La tabla exchange_rates se lee completa (una fila por moneda y día) y se arma
+ * un mapa ordenado por fecha para cada moneda: convertir un total es un floorEntry, sin consultas.
+ * Cada importación reemplaza la copia local; las demás instancias la recargan en el refresco periódico.
+ */
+@Slf4j
+@Service
+public class ExchangeRateService {
+
+    private static final int MAX_ROWS = 100_000;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String file;
+
+    // Se reemplaza entero, nunca se modifica: las lecturas no necesitan sincronización
+    private volatile Map<String, NavigableMap<LocalDate, BigDecimal>> rates = Map.of();
+    private volatile LocalDateTime loadedVersion;
+
+    public ExchangeRateService(@Value("${ahorrapp.exchange-rates.file:}") String file) {
+        this.file = file;
+    }
+
+    // El archivo configurado se importa en cada inicio; las cotizaciones ya cargadas se actualizan
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() throws IOException {
+        if (!file.isBlank()) {
+            try (InputStream in = Files.newInputStream(Path.of(file))) {
+                Map<String, Object> result = importCsv(in);
+                log.info("Imported {} exchange rates from {}", result.get("imported"), file);
+            }
+        } else {
+            reload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ahorrapp.exchange-rates.refresh-interval-ms:300000}", initialDelayString = "${ahorrapp.exchange-rates.refresh-interval-ms:300000}")
+    public void refresh() {
+        LocalDateTime version = exchangeRateRepository.findLastUpdate();
+        if (!Objects.equals(version, loadedVersion)) {
+            reload();
+        }
+    }
+
+    public void reload() {
+        LocalDateTime version = exchangeRateRepository.findLastUpdate();
+        Map<String, NavigableMap<LocalDate, BigDecimal>> loaded = new HashMap<>();
+        for (ExchangeRate rate : exchangeRateRepository.findAll()) {
+            loaded.computeIfAbsent(rate.getCurrency(), currency -> new TreeMap<>()).put(rate.getDate(), rate.getRate());
+        }
+        loaded.replaceAll((currency, byDate) -> Collections.unmodifiableNavigableMap(byDate));
+        rates = Map.copyOf(loaded);
+        loadedVersion = version;
+    }
+
+    // CSV con encabezado date,currency,rate (rate: unidades de la moneda de referencia por unidad). Todo o nada
+    public Map<String, Object> importCsv(InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Empty CSV");
+        }
+        List<String> columns = TransactionImportService.parseCsvLine(header.replace("\uFEFF", "")).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int dateColumn = columns.indexOf("date");
+        int currencyColumn = columns.indexOf("currency");
+        int rateColumn = columns.indexOf("rate");
+        if (dateColumn < 0 || currencyColumn < 0 || rateColumn < 0) {
+            throw new IllegalArgumentException("The CSV header must contain date, currency and rate");
+        }
+
+        List<ExchangeRate> rows = new ArrayList<>();
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (rows.size() == MAX_ROWS) {
+                throw new IllegalArgumentException("At most " + MAX_ROWS + " rates can be imported at once");
+            }
+            List<String> values = TransactionImportService.parseCsvLine(line);
+            try {
+                rows.add(parseRow(values.get(dateColumn).trim(), values.get(currencyColumn).trim(),
+                        values.get(rateColumn).trim()));
+            } catch (IndexOutOfBoundsException | IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> rows.forEach(
+                rate -> exchangeRateRepository.upsert(rate.getCurrency(), rate.getDate(), rate.getRate(), now)));
+        reload();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("imported", rows.size());
+        result.put("currencies", new TreeSet<>(rows.stream().map(ExchangeRate::getCurrency).toList()));
+        return result;
+    }
+
+    private static ExchangeRate parseRow(String date, String currency, String rate) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setDate(LocalDate.parse(date));
+        exchangeRate.setCurrency(Money.currency(currency));
+        if (exchangeRate.getCurrency().equals(Money.DEFAULT_CURRENCY)) {
+            throw new IllegalArgumentException(Money.DEFAULT_CURRENCY + " is the reference currency, its rate is always 1");
+        }
+        try {
+            exchangeRate.setRate(new BigDecimal(rate));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid rate " + rate);
+        }
+        if (exchangeRate.getRate().signum() <= 0) {
+            throw new IllegalArgumentException("The rate must be positive");
+        }
+        return exchangeRate;
+    }
+
+    // Cotización vigente: la del día o, si ese día no tiene, la última anterior
+    public BigDecimal rate(String from, String to, LocalDate date) {
+        return rateToReference(from, date).divide(rateToReference(to, date), 8, RoundingMode.HALF_EVEN);
+    }
+
+    public boolean canConvert(String from, String to, LocalDate date) {
+        return from.equals(to) || (findRate(from, date) != null && findRate(to, date) != null);
+    }
+
+    // Multiplica y divide sobre el monto completo, con un único redondeo al centavo
+    public long convert(long cents, String from, String to, LocalDate date) {
+        if (from.equals(to)) {
+            return cents;
+        }
+        return BigDecimal.valueOf(cents)
+                .multiply(rateToReference(from, date))
+                .divide(rateToReference(to, date), 0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+
+    // Última cotización conocida de cada moneda
+    public Map<String, Map<String, Object>> latest() {
+        Map<String, Map<String, Object>> latest = new TreeMap<>();
+        rates.forEach((currency, byDate) -> {
+            Entry<LocalDate, BigDecimal> last = byDate.lastEntry();
+            latest.put(currency, Map.of("date", last.getKey(), "rate", last.getValue()));
+        });
+        return latest;
+    }
+
+    private BigDecimal rateToReference(String currency, LocalDate date) {
+        BigDecimal rate = findRate(currency, date);
+        if (rate == null) {
+            throw new IllegalArgumentException("No exchange rate for " + currency + " on or before " + date);
+        }
+        return rate;
+    }
+
+    private BigDecimal findRate(String currency, LocalDate date) {
+        if (currency.equals(Money.DEFAULT_CURRENCY)) {
+            return BigDecimal.ONE;
+        }
+        NavigableMap<LocalDate, BigDecimal> byDate = rates.get(currency);
+        Entry<LocalDate, BigDecimal> entry = byDate != null ? byDate.floorEntry(date) : null;
+        return entry != null ? entry.getValue() : null;
+    }
+}
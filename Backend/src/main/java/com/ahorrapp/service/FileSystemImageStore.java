@@ -0,0 +1,70 @@
+package com.ahorrapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HexFormat;
+
+/*
+ * Un archivo por hash en <directorio>/ab/cd/abcd…: dos niveles de 256 subdirectorios mantienen cada
+ * directorio chico aun con millones de imágenes. La escritura va a un temporal en el mismo directorio y
+ * se renombra atómicamente, así un lector nunca ve un archivo a medio escribir.
+ */
+@Component
+public class FileSystemImageStore implements ImageStore {
+
+    private final Path root;
+
+    public FileSystemImageStore(@Value("${ahorrapp.images.directory:./ahorrapp-images}") String directory) {
+        this.root = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void put(String hash, byte[] bytes) throws IOException {
+        Path path = path(hash);
+        if (Files.exists(path)) {
+            return;
+        }
+        Files.createDirectories(path.getParent());
+        Path tempPath = Files.createTempFile(path.getParent(), hash, ".tmp");
+        try {
+            Files.write(tempPath, bytes);
+            Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Otro request guardó el mismo contenido al mismo tiempo
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    @Override
+    public byte[] read(String hash) throws IOException {
+        return Files.readAllBytes(path(hash));
+    }
+
+    @Override
+    public Resource resource(String hash) {
+        return new FileSystemResource(path(hash));
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        Files.deleteIfExists(path(hash));
+    }
+
+    private Path path(String hash) {
+        if (hash.length() != 64) {
+            throw new IllegalArgumentException("Invalid image hash " + hash);
+        }
+        HexFormat.of().parseHex(hash);
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+}
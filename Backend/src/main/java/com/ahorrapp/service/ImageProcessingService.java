@@ -0,0 +1,245 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.repository.TransactionRepository;
+import com.ahorrapp.service.ImageService.StoredImage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Procesa las imágenes de los comprobantes fuera del request: el request solo guarda los bytes subidos
+ * y encola el trabajo. Cada tarea decodifica la imagen, la recomprime (máx. 2048 px) y genera una
+ * miniatura. La cola es acotada; si se llena, la imagen queda sin procesar y la toma el barrido periódico.
+ */
+@Slf4j
+@Service
+public class ImageProcessingService {
+
+    private static final int MAX_ORIGINAL_SIDE = 2048;
+    private static final int THUMBNAIL_SIDE = 320;
+    private static final float ORIGINAL_QUALITY = 0.85f;
+    private static final float THUMBNAIL_QUALITY = 0.75f;
+    private static final int SWEEP_BATCH = 100;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Hilos virtuales, pero con un número fijo de workers: decodificar imágenes usa CPU y memoria
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    // Último id visto por el barrido: las fallas transitorias no bloquean a las filas que siguen
+    private long sweepCursor;
+
+    public ImageProcessingService(@Value("${ahorrapp.images.workers:2}") int workers,
+            @Value("${ahorrapp.images.queue-capacity:100}") int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofVirtual().name("image-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Encola la imagen recién guardada cuando la transacción confirma, para que el worker vea la fila
+    public void submitAfterCommit(Transaction transaction) {
+        Long id = transaction.getId();
+        Long userId = transaction.getUser().getId();
+        String hash = transaction.getImageHash();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(id, userId, hash);
+                }
+            });
+        } else {
+            submit(id, userId, hash);
+        }
+    }
+
+    // Recupera imágenes que no se procesaron: cola llena, reinicio del servidor o imágenes migradas.
+    // Recorre por id; al llegar al final vuelve a empezar y reintenta las que fallaron
+    @Scheduled(initialDelay = 60_000, fixedDelayString = "${ahorrapp.images.sweep-interval-ms:300000}")
+    public void processPending() {
+        List<Transaction> pending = transactionRepository
+                .findByImageHashNotNullAndThumbnailIsNullAndIdGreaterThanOrderById(sweepCursor, Limit.of(SWEEP_BATCH));
+        sweepCursor = pending.size() < SWEEP_BATCH ? 0 : pending.getLast().getId();
+        for (Transaction transaction : pending) {
+            if (executor.getQueue().remainingCapacity() == 0) {
+                sweepCursor = transaction.getId() - 1;
+                return;
+            }
+            submit(transaction.getId(), transaction.getUser().getId(), transaction.getImageHash());
+        }
+    }
+
+    private void submit(Long transactionId, Long userId, String hash) {
+        if (!queued.add(transactionId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(transactionId, userId, hash);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not process image {} of transaction {}", hash, transactionId, e);
+                } finally {
+                    queued.remove(transactionId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(transactionId);
+            log.debug("Image queue full, transaction {} left for the next sweep", transactionId);
+        }
+    }
+
+    private void process(Long transactionId, Long userId, String hash) throws IOException {
+        byte[] uploaded = imageService.readImage(hash);
+        Variants variants = encodeVariants(uploaded, transactionId);
+        byte[] compressed = variants.compressed();
+        byte[] thumbnail = variants.thumbnail();
+
+        // Las referencias nuevas y el UPDATE van en la misma transacción: si la imagen se reemplazó o se
+        // borró mientras se procesaba, se revierte todo y los blobs nuevos quedan para el GC
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        boolean recorded = Boolean.TRUE.equals(template.execute(status -> {
+            try {
+                if (record(transactionId, hash, uploaded.length, compressed, thumbnail)) {
+                    return true;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            status.setRollbackOnly();
+            return false;
+        }));
+        if (recorded) {
+            dataVersionService.bump(userId);
+        }
+    }
+
+    private record Variants(byte[] compressed, byte[] thumbnail) {
+    }
+
+    // Si no es una imagen que ImageIO pueda leer (o está corrupta), no hay variantes y el original se usa
+    // también como miniatura: la fila queda procesada y el barrido no la reintenta
+    private static Variants encodeVariants(byte[] uploaded, Long transactionId) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(uploaded));
+            if (source != null) {
+                return new Variants(encodeJpeg(scale(source, MAX_ORIGINAL_SIDE), ORIGINAL_QUALITY),
+                        encodeJpeg(scale(source, THUMBNAIL_SIDE), THUMBNAIL_QUALITY));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not decode the image of transaction {}, keeping it as uploaded", transactionId, e);
+        }
+        return new Variants(null, null);
+    }
+
+    private boolean record(Long transactionId, String hash, long uploadedSize, byte[] compressed, byte[] thumbnail)
+            throws IOException {
+        // Primero la fila y después los blobs, en el mismo orden que la edición y el borrado: un borrado
+        // concurrente espera y libera también la miniatura, o corre antes y acá no queda nada que registrar
+        if (transactionRepository.lockWithImage(transactionId, hash).isEmpty()) {
+            return false;
+        }
+        StoredImage original = compressed != null && compressed.length < uploadedSize
+                ? imageService.saveImage(compressed)
+                : null;
+        String thumbnailHash;
+        if (thumbnail != null) {
+            thumbnailHash = imageService.saveImage(thumbnail).hash();
+        } else {
+            imageService.acquire(hash);
+            thumbnailHash = hash;
+        }
+        String imageHash = original != null ? original.hash() : hash;
+        long imageSize = original != null ? original.size() : uploadedSize;
+        if (transactionRepository.recordProcessedImage(transactionId, hash, imageHash, imageHash, imageSize,
+                thumbnailHash, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        if (original != null) {
+            // La transacción ya no referencia la imagen tal como se subió
+            imageService.release(hash);
+        }
+        return true;
+    }
+
+    // Solo reduce; el fondo blanco reemplaza la transparencia de las capturas PNG
+    private static BufferedImage scale(BufferedImage source, int maxSide) {
+        double ratio = Math.min(1.0, (double) maxSide / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,246 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.repository.ImageBlobRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Imágenes de comprobantes sobre el ImageStore, con cuenta de referencias en image_blobs: cada columna de
+ * una transacción que apunta a un hash (image, thumbnail) es una referencia. saveImage y acquire suman,
+ * release resta; deben llamarse dentro de la transacción que modifica la fila. Los blobs que quedan sin
+ * referencias los borra collectGarbage pasado el período de gracia.
+ */
+@Slf4j
+@Service
+public class ImageService {
+
+    // Nombres del directorio plano anterior: image-<usuario>-<transacción>….(txt|jpg)
+    private static final String LEGACY_PREFIX = "image-";
+
+    public record StoredImage(String hash, long size) {
+    }
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ImageBlobRepository blobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Path legacyDirectory;
+    private final Duration gcGracePeriod;
+    private final int gcBatchSize;
+    private final Timer writeTimer;
+    private final Timer readTimer;
+    private final DistributionSummary writtenBytes;
+    private final DistributionSummary readBytes;
+    private final Counter collectedCounter;
+
+    public ImageService(@Value("${ahorrapp.images.directory:./ahorrapp-images}") String directory,
+            @Value("${ahorrapp.images.gc-grace-minutes:60}") long gcGraceMinutes,
+            @Value("${ahorrapp.images.gc-batch-size:500}") int gcBatchSize, MeterRegistry meterRegistry) {
+        this.legacyDirectory = Paths.get(directory).toAbsolutePath().normalize();
+        this.gcGracePeriod = Duration.ofMinutes(gcGraceMinutes);
+        this.gcBatchSize = gcBatchSize;
+        this.writeTimer = Timer.builder("ahorrapp.image.io").tag("operation", "write").register(meterRegistry);
+        this.readTimer = Timer.builder("ahorrapp.image.io").tag("operation", "read").register(meterRegistry);
+        this.writtenBytes = DistributionSummary.builder("ahorrapp.image.bytes").baseUnit("bytes")
+                .tag("operation", "write").register(meterRegistry);
+        this.readBytes = DistributionSummary.builder("ahorrapp.image.bytes").baseUnit("bytes")
+                .tag("operation", "read").register(meterRegistry);
+        this.collectedCounter = meterRegistry.counter("ahorrapp.image.gc.collected");
+    }
+
+    // Decodifica el base64 una sola vez y guarda los bytes crudos de la imagen
+    public StoredImage saveImage(String base64Image) throws IOException {
+        if (base64Image == null || base64Image.isEmpty()) {
+            return null;
+        }
+        return saveImage(decode(base64Image));
+    }
+
+    public static byte[] decode(String base64Image) throws IOException {
+        try {
+            return Base64.getMimeDecoder().decode(base64Image);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid base64 image", e);
+        }
+    }
+
+    // Guarda el contenido (una sola vez por hash) y suma una referencia
+    public StoredImage saveImage(byte[] bytes) throws IOException {
+        long start = System.nanoTime();
+        String hash = sha256(bytes);
+        blobRepository.register(hash, bytes.length, LocalDateTime.now());
+        imageStore.put(hash, bytes);
+        acquire(hash);
+
+        writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        writtenBytes.record(bytes.length);
+        return new StoredImage(hash, bytes.length);
+    }
+
+    public void acquire(String hash) {
+        if (blobRepository.acquire(hash) == 0) {
+            throw new IllegalStateException("Image " + hash + " is not registered");
+        }
+    }
+
+    public void release(String hash) {
+        if (hash != null) {
+            blobRepository.release(hash, LocalDateTime.now());
+        }
+    }
+
+    public byte[] readImage(String hash) throws IOException {
+        long start = System.nanoTime();
+        byte[] bytes = imageStore.read(hash);
+        readTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        readBytes.record(bytes.length);
+        return bytes;
+    }
+
+    public Resource resource(String hash) {
+        return imageStore.resource(hash);
+    }
+
+    // Formato según los primeros bytes: los originales que no se recomprimieron conservan el formato subido
+    public MediaType contentType(Resource image) throws IOException {
+        byte[] header;
+        try (InputStream in = image.getInputStream()) {
+            header = in.readNBytes(12);
+        }
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return MediaType.IMAGE_JPEG;
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G')) {
+            return MediaType.IMAGE_PNG;
+        }
+        if (startsWith(header, 0, 'G', 'I', 'F', '8')) {
+            return MediaType.IMAGE_GIF;
+        }
+        if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+            return MediaType.parseMediaType("image/webp");
+        }
+        if (startsWith(header, 0, 'B', 'M')) {
+            return MediaType.parseMediaType("image/bmp");
+        }
+        if (startsWith(header, 0, '%', 'P', 'D', 'F')) {
+            return MediaType.APPLICATION_PDF;
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, int... prefix) {
+        if (bytes.length < offset + prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((bytes[offset + i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Scheduled(initialDelay = 120_000, fixedDelayString = "${ahorrapp.images.gc-interval-ms:3600000}")
+    public void collectGarbage() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        LocalDateTime cutoff = LocalDateTime.now().minus(gcGracePeriod);
+        int[] batch;
+        int collected = 0;
+        do {
+            batch = template.execute(status -> collectBatch(cutoff));
+            collected += batch[1];
+        } while (batch[0] == gcBatchSize && batch[1] > 0);
+        if (collected > 0) {
+            log.info("Collected {} unreferenced images", collected);
+        }
+    }
+
+    // Devuelve {blobs tomados, blobs borrados}. Si un archivo no se puede borrar, su fila queda para la próxima pasada
+    private int[] collectBatch(LocalDateTime cutoff) {
+        List<String> hashes = blobRepository.claimOrphaned(cutoff, gcBatchSize);
+        List<String> deleted = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            try {
+                imageStore.delete(hash);
+                deleted.add(hash);
+            } catch (IOException e) {
+                log.warn("Could not delete unreferenced image {}", hash, e);
+            }
+        }
+        if (!deleted.isEmpty()) {
+            blobRepository.deleteByHashIn(deleted);
+        }
+        collectedCounter.increment(deleted.size());
+        return new int[] { hashes.size(), deleted.size() };
+    }
+
+    // Imágenes del directorio plano anterior: .txt con el base64 o .jpg con los bytes
+    public boolean isLegacyImage(String image) {
+        return image != null && image.startsWith(LEGACY_PREFIX);
+    }
+
+    public byte[] readLegacyImage(String filename) throws IOException {
+        byte[] bytes = Files.readAllBytes(legacyPath(filename));
+        if (!filename.endsWith(".txt")) {
+            return bytes;
+        }
+        try {
+            return Base64.getMimeDecoder().decode(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid base64 image " + filename, e);
+        }
+    }
+
+    public void deleteLegacyImage(String filename) throws IOException {
+        Files.deleteIfExists(legacyPath(filename));
+    }
+
+    private Path legacyPath(String filename) {
+        Path path = legacyDirectory.resolve(filename).normalize();
+        if (!legacyDirectory.equals(path.getParent())) {
+            throw new IllegalArgumentException("Invalid image filename " + filename);
+        }
+        return path;
+    }
+
+    public static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ahorrapp.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+
+/*
+ * Almacenamiento de los archivos de imagen, direccionado por contenido: la clave es el SHA-256 (hex) de los
+ * bytes, así que guardar dos veces el mismo contenido no ocupa más espacio. No lleva cuenta de referencias;
+ * eso lo hace ImageService con la tabla image_blobs. Las implementaciones deben tolerar put/delete repetidos.
+ */
+public interface ImageStore {
+
+    // No hace nada si la clave ya existe
+    void put(String hash, byte[] bytes) throws IOException;
+
+    byte[] read(String hash) throws IOException;
+
+    // Para servir la imagen con soporte de Range; puede no existir
+    Resource resource(String hash);
+
+    void delete(String hash) throws IOException;
+}
@@ -0,0 +1,77 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.exception.TooManyRequestsException;
+import com.ahorrapp.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/*
+ * Limita los intentos de login/registro antes de gastar CPU en BCrypt: un bucket por IP y otro por cuenta.
+ * La IP es la remota del conector; detrás de un proxy hay que configurar server.forward-headers-strategy
+ * para que sea la del cliente (X-Forwarded-For no se lee directamente porque se puede falsificar).
+ */
+@Service
+public class LoginRateLimiter {
+
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> accountBuckets;
+    private final int ipCapacity;
+    private final int ipRefillPerMinute;
+    private final int accountCapacity;
+    private final int accountRefillPerMinute;
+    private final MeterRegistry meterRegistry;
+
+    public LoginRateLimiter(@Value("${ahorrapp.auth.rate-limit.ip-capacity:20}") int ipCapacity,
+            @Value("${ahorrapp.auth.rate-limit.ip-refill-per-minute:10}") int ipRefillPerMinute,
+            @Value("${ahorrapp.auth.rate-limit.account-capacity:5}") int accountCapacity,
+            @Value("${ahorrapp.auth.rate-limit.account-refill-per-minute:5}") int accountRefillPerMinute,
+            MeterRegistry meterRegistry) {
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerMinute = ipRefillPerMinute;
+        this.accountCapacity = accountCapacity;
+        this.accountRefillPerMinute = accountRefillPerMinute;
+        this.meterRegistry = meterRegistry;
+        // Un bucket sin uso durante más de lo que tarda en llenarse ya está lleno: se puede descartar
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(refillTime(ipCapacity, ipRefillPerMinute))
+                .build();
+        this.accountBuckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(refillTime(accountCapacity, accountRefillPerMinute))
+                .build();
+    }
+
+    public void checkIp(String ip) {
+        TokenBucket bucket = ipBuckets.get(ip, key -> new TokenBucket(ipCapacity, ipRefillPerMinute));
+        consume(bucket, "ip");
+    }
+
+    public void checkAccount(String email) {
+        if (email == null) {
+            return;
+        }
+        TokenBucket bucket = accountBuckets.get(email.trim().toLowerCase(Locale.ROOT),
+                key -> new TokenBucket(accountCapacity, accountRefillPerMinute));
+        consume(bucket, "account");
+    }
+
+    private void consume(TokenBucket bucket, String scope) {
+        if (!bucket.tryConsume()) {
+            meterRegistry.counter("ahorrapp.auth.throttled", "scope", scope).increment();
+            throw new TooManyRequestsException("Too many login attempts", Math.max(1, bucket.secondsUntilAvailable()));
+        }
+    }
+
+    private static Duration refillTime(int capacity, int refillPerMinute) {
+        return Duration.ofSeconds(Math.max(60, 60L * capacity / Math.max(1, refillPerMinute)));
+    }
+}
@@ -0,0 +1,111 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/*
+ * BCrypt corre en un pool propio de hilos de plataforma con cola acotada: como mucho `threads` núcleos
+ * hasheando a la vez, sin importar cuántos requests de login lleguen. Si la cola está llena o la espera
+ * supera el timeout, el intento se rechaza con 429 en lugar de acumular trabajo.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final MeterRegistry meterRegistry;
+    private final Timer waitTimer;
+
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+            @Value("${ahorrapp.auth.hashing-threads:0}") int threads,
+            @Value("${ahorrapp.auth.hashing-queue-capacity:64}") int queueCapacity,
+            @Value("${ahorrapp.auth.hashing-timeout-ms:5000}") long timeoutMillis) {
+        // 0 = la mitad de los núcleos, para dejar CPU libre al resto de los requests
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("password-hash-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.waitTimer = Timer.builder("ahorrapp.password.wait").register(meterRegistry);
+        Gauge.builder("ahorrapp.password.queue", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("ahorrapp.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            boolean matches = passwordEncoder.matches(rawPassword, encodedPassword);
+            sample.stop(meterRegistry.timer("ahorrapp.password.verify", "result", matches ? "match" : "mismatch"));
+            return matches;
+        });
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    // true si el hash es de un algoritmo o costo anterior al configurado y conviene regenerarlo
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            throw rejected("queue");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw rejected("timeout");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private TooManyRequestsException rejected(String scope) {
+        meterRegistry.counter("ahorrapp.auth.throttled", "scope", scope).increment();
+        return new TooManyRequestsException("Authentication service is busy", 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,213 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.dto.RecurringRuleDTO;
+import com.ahorrapp.model.Category;
+import com.ahorrapp.model.Money;
+import com.ahorrapp.model.RecurringRule;
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.model.User;
+import com.ahorrapp.repository.RecurringRuleRepository;
+import com.ahorrapp.repository.TransactionRepository;
+import com.ahorrapp.repository.UserRepository;
+import com.ahorrapp.util.mapperDTOModel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+ * Reglas recurrentes y el motor que las materializa. Cada pasada toma lotes de reglas vencidas con
+ * FOR UPDATE SKIP LOCKED, genera las ocurrencias pendientes y avanza next_run en la misma transacción:
+ * si el proceso se corta, el lote se revierte entero y la próxima pasada lo retoma. El índice único
+ * (recurring_rule_id, date) garantiza que una ocurrencia nunca se inserte dos veces.
+ * Con varias instancias, cada una puede tomar una partición de usuarios (user_id % partitions).
+ */
+@Slf4j
+@Service
+public class RecurringTransactionService {
+
+    // Tope de ocurrencias por regla y por lote, para que una regla con mucho atraso no acapare la pasada
+    private static final int MAX_OCCURRENCES_PER_BATCH = 31;
+    // Antigüedad máxima del inicio de una regla nueva: acota las ocurrencias atrasadas que se generan
+    private static final Period MAX_BACKFILL = Period.ofYears(1);
+
+    @Autowired
+    private RecurringRuleRepository ruleRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final int partitions;
+    private final int partition;
+    private final int batchSize;
+    private final Counter generatedCounter;
+
+    public RecurringTransactionService(@Value("${ahorrapp.recurring.partitions:1}") int partitions,
+            @Value("${ahorrapp.recurring.partition:0}") int partition,
+            @Value("${ahorrapp.recurring.batch-size:100}") int batchSize, MeterRegistry meterRegistry) {
+        if (partition < 0 || partition >= partitions) {
+            throw new IllegalArgumentException("ahorrapp.recurring.partition must be between 0 and partitions - 1");
+        }
+        this.partitions = partitions;
+        this.partition = partition;
+        this.batchSize = batchSize;
+        this.generatedCounter = meterRegistry.counter("ahorrapp.recurring.generated");
+    }
+
+    public List<RecurringRuleDTO> getRules(Long userId) {
+        return ruleRepository.findByUserId(userId).stream()
+                .map(mapperDTOModel::mapToResponseDTO)
+                .toList();
+    }
+
+    // Una regla con inicio en el pasado (hasta MAX_BACKFILL) genera también las ocurrencias atrasadas
+    @Transactional
+    public RecurringRule createRule(RecurringRuleDTO ruleRequest, Long userId) {
+        if (ruleRequest.getStartDate().isBefore(LocalDateTime.now().minus(MAX_BACKFILL))) {
+            throw new IllegalArgumentException("The start date cannot be more than one year in the past");
+        }
+        RecurringRule rule = new RecurringRule();
+        rule.setUserId(userId);
+        apply(rule, ruleRequest, userId);
+        rule.skipUntil(rule.getStartDate());
+        return ruleRepository.save(rule);
+    }
+
+    // Un cambio de calendario rige desde ahora: no se generan de nuevo ocurrencias pasadas
+    @Transactional
+    public RecurringRule updateRule(RecurringRuleDTO ruleRequest, Long userId) {
+        RecurringRule rule = findRule(ruleRequest.getId(), userId);
+        Category previousCategory = rule.getCategory();
+        boolean scheduleChanged = rule.getFrequency() != ruleRequest.getFrequency()
+                || !rule.getStartDate().equals(ruleRequest.getStartDate())
+                || !Objects.equals(rule.getEndDate(), ruleRequest.getEndDate());
+        apply(rule, ruleRequest, userId);
+        if (scheduleChanged) {
+            rule.skipUntil(LocalDateTime.now());
+        }
+        RecurringRule savedRule = ruleRepository.save(rule);
+        if (!previousCategory.getId().equals(savedRule.getCategory().getId())) {
+            categoryService.deleteIfUnused(previousCategory);
+        }
+        return savedRule;
+    }
+
+    // Las transacciones ya generadas se conservan (recurring_rule_id pasa a null)
+    @Transactional
+    public void deleteRule(Long id, Long userId) {
+        RecurringRule rule = findRule(id, userId);
+        ruleRepository.delete(rule);
+        ruleRepository.flush();
+        categoryService.deleteIfUnused(rule.getCategory());
+    }
+
+    @Scheduled(initialDelay = 30_000, fixedDelayString = "${ahorrapp.recurring.interval-ms:60000}")
+    public void materializeDueRules() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+        int claimed;
+        int generated = 0;
+        do {
+            int[] batch = template.execute(status -> materializeBatch(now));
+            claimed = batch[0];
+            generated += batch[1];
+        } while (claimed == batchSize);
+        if (generated > 0) {
+            log.info("Generated {} recurring transactions", generated);
+        }
+    }
+
+    // Devuelve {reglas tomadas, transacciones generadas}
+    private int[] materializeBatch(LocalDateTime now) {
+        List<RecurringRule> rules = ruleRepository.claimDue(now, partitions, partition, batchSize);
+        Map<Long, List<Transaction>> generatedByUser = new LinkedHashMap<>();
+        for (RecurringRule rule : rules) {
+            int occurrences = 0;
+            while (rule.getNextRun() != null && !rule.getNextRun().isAfter(now)
+                    && occurrences < MAX_OCCURRENCES_PER_BATCH) {
+                if (!transactionRepository.existsByRecurringRuleIdAndDate(rule.getId(), rule.getNextRun())) {
+                    generatedByUser.computeIfAbsent(rule.getUserId(), userId -> new ArrayList<>())
+                            .add(toTransaction(rule));
+                }
+                rule.advance();
+                occurrences++;
+            }
+        }
+
+        int generated = 0;
+        for (Map.Entry<Long, List<Transaction>> entry : generatedByUser.entrySet()) {
+            List<Transaction> transactions = transactionRepository.saveAll(entry.getValue());
+            statisticsService.addTransactions(entry.getKey(), transactions);
+            dataVersionService.bump(entry.getKey());
+            generated += transactions.size();
+        }
+        generatedCounter.increment(generated);
+        return new int[] { rules.size(), generated };
+    }
+
+    private Transaction toTransaction(RecurringRule rule) {
+        User user = userRepository.getReferenceById(rule.getUserId());
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setType(rule.getType());
+        transaction.setCategory(rule.getCategory());
+        transaction.setAmount(rule.getAmount());
+        transaction.setCurrency(rule.getCurrency());
+        transaction.setDescription(rule.getDescription());
+        transaction.setDate(rule.getNextRun());
+        transaction.setRecurringRuleId(rule.getId());
+        return transaction;
+    }
+
+    private void apply(RecurringRule rule, RecurringRuleDTO ruleRequest, Long userId) {
+        if (ruleRequest.getEndDate() != null && ruleRequest.getEndDate().isBefore(ruleRequest.getStartDate())) {
+            throw new IllegalArgumentException("The end date must be after the start date");
+        }
+        rule.setType(ruleRequest.getType());
+        rule.setCategory(categoryService.resolve(userId, ruleRequest.getCategory()));
+        rule.setAmount(ruleRequest.getAmount());
+        rule.setCurrency(Money.currency(ruleRequest.getCurrency()));
+        rule.setDescription(ruleRequest.getDescription());
+        rule.setFrequency(ruleRequest.getFrequency());
+        rule.setStartDate(ruleRequest.getStartDate());
+        rule.setEndDate(ruleRequest.getEndDate());
+        rule.setActive(ruleRequest.getActive() == null || ruleRequest.getActive());
+    }
+
+    private RecurringRule findRule(Long id, Long userId) {
+        return ruleRepository.findById(id)
+                .filter(rule -> rule.getUserId().equals(userId))
+                .orElseThrow(() -> new IllegalArgumentException("Recurring rule not found"));
+    }
+}
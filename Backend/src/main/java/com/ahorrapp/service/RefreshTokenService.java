@@ -0,0 +1,121 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.model.RefreshToken;
+import com.ahorrapp.repository.RefreshTokenRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/*
+ * Refresh tokens opacos (32 bytes aleatorios). Cada login abre una sesión propia, así un usuario puede
+ * tener varios dispositivos; cada refresh rota el token de esa sesión con un único UPDATE por índice.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    public static final Duration EXPIRATION = Duration.ofDays(7);
+    private static final int PURGE_BATCH_SIZE = 1000;
+    private static final int MAX_DEVICE_LENGTH = 255;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public record Rotation(Long userId, String token) {
+    }
+
+    public String issue(Long userId, String device) {
+        String token = newToken();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUserId(userId);
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setDevice(device != null && device.length() > MAX_DEVICE_LENGTH
+                ? device.substring(0, MAX_DEVICE_LENGTH)
+                : device);
+        refreshToken.setCreatedAt(LocalDateTime.now());
+        refreshToken.setExpiresAt(refreshToken.getCreatedAt().plus(EXPIRATION));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    /*
+     * Devuelve el usuario y el token nuevo; vacío si el token no existe, venció o ya se rotó. Si es el que
+     * reemplazó la última rotación de una sesión, la sesión se cierra: el cliente legítimo ya tiene el nuevo,
+     * así que quien lo presenta lo copió. Solo se recuerda el último token de cada sesión.
+     */
+    @Transactional
+    public Optional<Rotation> rotate(String token) {
+        String oldHash = hash(token);
+        Optional<RefreshToken> stored = refreshTokenRepository.findByTokenHash(oldHash);
+        if (stored.isEmpty()) {
+            if (refreshTokenRepository.deleteByPreviousTokenHash(oldHash) > 0) {
+                log.warn("Rotated refresh token presented again; session revoked");
+            }
+            return Optional.empty();
+        }
+        if (stored.get().getExpiresAt().isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        String newToken = newToken();
+        int rotated = refreshTokenRepository.rotate(stored.get().getId(), oldHash, hash(newToken),
+                LocalDateTime.now().plus(EXPIRATION));
+        return rotated > 0 ? Optional.of(new Rotation(stored.get().getUserId(), newToken)) : Optional.empty();
+    }
+
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.deleteByTokenHash(hash(token));
+    }
+
+    // Borra en lotes para no sostener un lock largo sobre la tabla
+    @Scheduled(cron = "0 30 4 * * *")
+    public void purgeExpired() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        int batch;
+        do {
+            batch = template.execute(status -> refreshTokenRepository.deleteExpiredBatch(now, PURGE_BATCH_SIZE));
+            purged += batch;
+        } while (batch == PURGE_BATCH_SIZE);
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
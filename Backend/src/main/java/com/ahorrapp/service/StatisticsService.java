@@ -0,0 +1,202 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.config.CacheConfig;
+import com.ahorrapp.dto.CategoryTotalDTO;
+import com.ahorrapp.dto.MonthlyTotalDTO;
+import com.ahorrapp.dto.RollupTotalDTO;
+import com.ahorrapp.model.Money;
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.repository.TransactionRollupRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+@Service
+public class StatisticsService {
+
+    private static final String FIRST_MONTH = "0000-01";
+    private static final String LAST_MONTH = "9999-12";
+
+    @Autowired
+    private TransactionRollupRepository rollupRepository;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    // Debe llamarse dentro de la misma transacción que modifica la fila de Transaction
+    @CacheEvict(cacheNames = CacheConfig.ROLLUPS, key = "#transaction.user.id")
+    public void addTransaction(Transaction transaction) {
+        rollupRepository.addToBucket(transaction.getUser().getId(), monthOf(transaction.getDate()),
+                transaction.getCategory().getId(), transaction.getType().name(), transaction.getCurrency(),
+                transaction.getAmount(), 1);
+        if (transaction.getType() == TransactionType.EXPENSE) {
+            budgetService.onExpensesChanged(transaction.getUser().getId(), transaction.getDate());
+        }
+    }
+
+    private record Bucket(String month, Long categoryId, TransactionType type, String currency) {
+    }
+
+    // Agrupa el lote por bucket para hacer un solo upsert por mes/categoría/tipo/moneda
+    @CacheEvict(cacheNames = CacheConfig.ROLLUPS, key = "#userId")
+    public void addTransactions(Long userId, List<Transaction> transactions) {
+        Map<Bucket, long[]> buckets = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            long[] bucket = buckets.computeIfAbsent(new Bucket(monthOf(transaction.getDate()),
+                    transaction.getCategory().getId(), transaction.getType(), transaction.getCurrency()),
+                    key -> new long[2]);
+            bucket[0] = Math.addExact(bucket[0], transaction.getAmount());
+            bucket[1]++;
+        }
+        buckets.forEach((key, bucket) -> rollupRepository.addToBucket(userId, key.month(), key.categoryId(),
+                key.type().name(), key.currency(), bucket[0], bucket[1]));
+        transactions.stream()
+                .filter(transaction -> transaction.getType() == TransactionType.EXPENSE)
+                .map(Transaction::getDate)
+                .filter(date -> YearMonth.from(date).equals(YearMonth.now()))
+                .findAny()
+                .ifPresent(date -> budgetService.onExpensesChanged(userId, date));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.ROLLUPS, key = "#userId")
+    public void removeTransaction(Long userId, LocalDateTime date, Long categoryId, TransactionType type, Money amount) {
+        rollupRepository.addToBucket(userId, monthOf(date), categoryId, type.name(), amount.currency(),
+                -amount.cents(), -1);
+        rollupRepository.deleteEmptyBuckets(userId);
+        if (type == TransactionType.EXPENSE) {
+            budgetService.onExpensesChanged(userId, date);
+        }
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.ROLLUPS, key = "#userId")
+    public void changeCategories(Long userId, Long newCategoryId, List<Long> oldCategoryIds) {
+        rollupRepository.mergeCategories(userId, newCategoryId, oldCategoryIds);
+        rollupRepository.deleteCategories(userId, newCategoryId, oldCategoryIds);
+        budgetService.onExpensesChanged(userId, LocalDateTime.now());
+    }
+
+    // Con reportCurrency, agrega "converted": los mismos totales expresados en esa moneda
+    public Map<String, Object> getStatistics(Long userId, String from, String to, String reportCurrency) {
+        String fromMonth = from != null ? from : FIRST_MONTH;
+        String toMonth = to != null ? to : LAST_MONTH;
+
+        // Los buckets del usuario salen de la caché; el rango de meses se filtra en memoria
+        List<RollupTotalDTO> rows = rollupRepository.findTotalsByUserId(userId).stream()
+                .filter(row -> row.getMonth().compareTo(fromMonth) >= 0 && row.getMonth().compareTo(toMonth) <= 0)
+                .toList();
+
+        // Totales por moneda, sumados en centavos: {"ARS": {"INCOME": 1500.00, "EXPENSE": 320.50}}
+        Totals byCurrency = aggregate(rows, RollupTotalDTO::getCurrency, RollupTotalDTO::getTotal);
+        Map<String, Map<TransactionType, BigDecimal>> totals = new TreeMap<>();
+        Map<String, BigDecimal> balance = new TreeMap<>();
+        byCurrency.byType().forEach((currency, byType) -> {
+            totals.put(currency, toDecimals(byType));
+            balance.put(currency, balanceOf(byType));
+        });
+
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("months", byCurrency.months());
+        statistics.put("categories", byCurrency.categories());
+        statistics.put("totals", totals);
+        statistics.put("balance", balance);
+        if (reportCurrency != null) {
+            statistics.put("converted", convert(rows, Money.currency(reportCurrency)));
+        }
+        return statistics;
+    }
+
+    private record MonthKey(String month, TransactionType type, String currency) {
+    }
+
+    private record CategoryKey(String category, TransactionType type, String currency) {
+    }
+
+    private record Totals(List<MonthlyTotalDTO> months, List<CategoryTotalDTO> categories, Map<String, long[]> byType) {
+    }
+
+    // Suma los buckets por mes y por categoría; currencyOf y centsOf permiten sumarlos ya convertidos
+    private static Totals aggregate(List<RollupTotalDTO> rows, Function<RollupTotalDTO, String> currencyOf,
+            ToLongFunction<RollupTotalDTO> centsOf) {
+        Map<MonthKey, long[]> months = new LinkedHashMap<>();
+        Map<CategoryKey, long[]> categories = new HashMap<>();
+        Map<String, long[]> byType = new TreeMap<>();
+        for (RollupTotalDTO row : rows) {
+            String currency = currencyOf.apply(row);
+            long cents = centsOf.applyAsLong(row);
+            add(months.computeIfAbsent(new MonthKey(row.getMonth(), row.getType(), currency), key -> new long[2]),
+                    cents, row.getCount());
+            add(categories.computeIfAbsent(new CategoryKey(row.getCategory(), row.getType(), currency),
+                    key -> new long[2]), cents, row.getCount());
+            long[] currencyTotals = byType.computeIfAbsent(currency, key -> new long[TransactionType.values().length]);
+            currencyTotals[row.getType().ordinal()] = Math.addExact(currencyTotals[row.getType().ordinal()], cents);
+        }
+
+        List<MonthlyTotalDTO> monthTotals = new ArrayList<>(months.size());
+        months.forEach((key, bucket) -> monthTotals.add(
+                new MonthlyTotalDTO(key.month(), key.type(), key.currency(), bucket[0], bucket[1])));
+        List<CategoryTotalDTO> categoryTotals = new ArrayList<>(categories.size());
+        categories.forEach((key, bucket) -> categoryTotals.add(
+                new CategoryTotalDTO(key.category(), key.type(), key.currency(), bucket[0], bucket[1])));
+        categoryTotals.sort(Comparator.comparing(CategoryTotalDTO::getTotal).reversed());
+        return new Totals(monthTotals, categoryTotals, byType);
+    }
+
+    private static void add(long[] bucket, long cents, long count) {
+        bucket[0] = Math.addExact(bucket[0], cents);
+        bucket[1] += count;
+    }
+
+    /*
+     * Cada bucket se convierte con la cotización vigente al cierre de su mes y después se suma, así un
+     * informe de varios años no valúa todo a la cotización de hoy. Falla si falta alguna cotización.
+     */
+    private Map<String, Object> convert(List<RollupTotalDTO> rows, String currency) {
+        Totals totals = aggregate(rows, row -> currency, row -> exchangeRateService.convert(row.getTotal(),
+                row.getCurrency(), currency, YearMonth.parse(row.getMonth()).atEndOfMonth()));
+        long[] byType = totals.byType().getOrDefault(currency, new long[TransactionType.values().length]);
+
+        Map<String, Object> converted = new HashMap<>();
+        converted.put("currency", currency);
+        converted.put("months", totals.months());
+        converted.put("categories", totals.categories());
+        converted.put("totals", toDecimals(byType));
+        converted.put("balance", balanceOf(byType));
+        return converted;
+    }
+
+    private static Map<TransactionType, BigDecimal> toDecimals(long[] byType) {
+        Map<TransactionType, BigDecimal> totals = new EnumMap<>(TransactionType.class);
+        for (TransactionType type : TransactionType.values()) {
+            totals.put(type, Money.toDecimal(byType[type.ordinal()]));
+        }
+        return totals;
+    }
+
+    private static BigDecimal balanceOf(long[] byType) {
+        return Money.toDecimal(Math.subtractExact(byType[TransactionType.INCOME.ordinal()],
+                byType[TransactionType.EXPENSE.ordinal()]));
+    }
+
+    private static String monthOf(LocalDateTime date) {
+        return YearMonth.from(date).toString();
+    }
+}
@@ -0,0 +1,209 @@
+package com.ahorrapp.service;
+
+import com.ahorrapp.dto.ImportRowResultDTO;
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.model.Transaction;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Importación masiva: lee el cuerpo fila por fila y guarda las válidas en lotes
+@Slf4j
+@Service
+public class TransactionImportService {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_ROWS = 10_000;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    public Map<String, Object> importJson(InputStream body, Long userId) throws IOException {
+        Importer importer = new Importer(userId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of transactions");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY && !importer.isFull()) {
+                JsonNode row = parser.readValueAsTree();
+                importer.accept(() -> objectMapper.treeToValue(row, TransactionDTO.class));
+            }
+        }
+        return importer.finish();
+    }
+
+    // CSV con encabezado; columnas reconocidas: type, category, amount, currency, description, date
+    public Map<String, Object> importCsv(InputStream body, Long userId) throws IOException {
+        Importer importer = new Importer(userId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Empty CSV");
+        }
+        List<String> columns = parseCsvLine(header.replace("\uFEFF", "")).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+
+        String line;
+        while ((line = reader.readLine()) != null && !importer.isFull()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> values = parseCsvLine(line);
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < columns.size() && i < values.size(); i++) {
+                fields.put(columns.get(i), values.get(i).trim());
+            }
+            importer.accept(() -> objectMapper.convertValue(fields, TransactionDTO.class));
+        }
+        return importer.finish();
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private interface RowReader {
+        TransactionDTO read() throws JsonProcessingException;
+    }
+
+    private class Importer {
+        private final Long userId;
+        private final List<ImportRowResultDTO> results = new ArrayList<>();
+        private List<TransactionDTO> pending = new ArrayList<>(BATCH_SIZE);
+        private final List<ImportRowResultDTO> pendingResults = new ArrayList<>(BATCH_SIZE);
+        private int row;
+        private int imported;
+        private int failed;
+
+        Importer(Long userId) {
+            this.userId = userId;
+        }
+
+        boolean isFull() {
+            return row >= MAX_ROWS;
+        }
+
+        void accept(RowReader reader) {
+            row++;
+            TransactionDTO transactionRequest;
+            try {
+                transactionRequest = reader.read();
+            } catch (JsonProcessingException e) {
+                fail(Map.of("row", e.getOriginalMessage()));
+                return;
+            } catch (IllegalArgumentException e) {
+                fail(Map.of("row", e.getMessage()));
+                return;
+            }
+            transactionRequest.setUserId(userId);
+            transactionRequest.setImage(null);
+
+            Set<ConstraintViolation<TransactionDTO>> violations = validator.validate(transactionRequest);
+            if (!violations.isEmpty()) {
+                Map<String, String> errors = new LinkedHashMap<>();
+                violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+                fail(errors);
+                return;
+            }
+
+            ImportRowResultDTO result = new ImportRowResultDTO(row, "IMPORTED", null, null);
+            results.add(result);
+            pending.add(transactionRequest);
+            pendingResults.add(result);
+            if (pending.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void fail(Map<String, String> errors) {
+            results.add(new ImportRowResultDTO(row, "FAILED", null, errors));
+            failed++;
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                List<Transaction> saved = transactionService.importTransactions(pending, userId);
+                for (int i = 0; i < saved.size(); i++) {
+                    pendingResults.get(i).setId(saved.get(i).getId());
+                }
+                imported += saved.size();
+            } catch (RuntimeException e) {
+                log.warn("Bulk import batch of {} rows failed for user {}", pending.size(), userId, e);
+                pendingResults.forEach(result -> {
+                    result.setStatus("FAILED");
+                    result.setErrors(Map.of("row", "Could not be saved"));
+                });
+                failed += pendingResults.size();
+            }
+            pending = new ArrayList<>(BATCH_SIZE);
+            pendingResults.clear();
+        }
+
+        Map<String, Object> finish() {
+            flush();
+            Map<String, Object> report = new HashMap<>();
+            report.put("imported", imported);
+            report.put("failed", failed);
+            report.put("truncated", isFull());
+            report.put("rows", results);
+            return report;
+        }
+    }
+}
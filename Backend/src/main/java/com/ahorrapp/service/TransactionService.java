@@ -1,60 +1,225 @@
 package com.ahorrapp.service;
 
 import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.dto.TransactionSearchDTO;
+import com.ahorrapp.model.Category;
+import com.ahorrapp.model.Money;
 import com.ahorrapp.model.Transaction;
+import com.ahorrapp.model.TransactionTombstone;
 import com.ahorrapp.model.User;
+import com.ahorrapp.repository.CategoryRepository;
 import com.ahorrapp.repository.TransactionRepository;
+import com.ahorrapp.repository.TransactionSpecifications;
+import com.ahorrapp.repository.TransactionTombstoneRepository;
 import com.ahorrapp.repository.UserRepository;
+import com.ahorrapp.service.ImageService.StoredImage;
+import com.ahorrapp.util.SyncToken;
+import com.ahorrapp.util.TransactionCursor;
+import com.ahorrapp.util.mapperDTOModel;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 public class TransactionService {
 
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private TransactionTombstoneRepository tombstoneRepository;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
     public Transaction createTransaction(Transaction transaction, Long userId) {
         Optional<User> userOptional = userRepository.findById(userId);
         if (userOptional.isPresent()) {
             transaction.setUser(userOptional.get());
-            return transactionRepository.save(transaction);
+            Transaction savedTransaction = transactionRepository.save(transaction);
+            statisticsService.addTransaction(savedTransaction);
+            dataVersionService.bump(userId);
+            return savedTransaction;
         } else {
             throw new IllegalArgumentException("User not found with ID: " + userId);
         }
     }
 
-    public List<Transaction> getTransactionsByUserId(Long userId) {
-        return transactionRepository.findByUserIdOrderByDateDesc(userId);
+    public List<TransactionDTO> getTransactionsByUserId(Long userId) {
+        return transactionRepository.findDTOsByUserId(userId);
+    }
+
+    // Límites de fecha por defecto, dentro del rango que admite un timestamp de Postgres
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    public List<TransactionDTO> getTransactionsPage(Long userId, TransactionCursor cursor, LocalDate from, LocalDate to,
+            int limit) {
+        LocalDateTime fromDate = from != null ? from.atStartOfDay() : MIN_DATE;
+        LocalDateTime toDate = to != null ? to.plusDays(1).atStartOfDay() : MAX_DATE;
+        if (cursor == null) {
+            return transactionRepository.findFirstPage(userId, fromDate, toDate, Limit.of(limit));
+        }
+        return transactionRepository.findPageAfter(userId, fromDate, toDate, cursor.date(), cursor.id(),
+                Limit.of(limit));
+    }
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
+    // Tiempo máximo de una búsqueda: Postgres cancela la consulta y la conexión vuelve al pool
+    private static final int SEARCH_TIMEOUT_SECONDS = 3;
+
+    public List<Transaction> searchTransactions(Long userId, TransactionSearchDTO search, TransactionCursor cursor,
+            int limit) {
+        LocalDateTime fromDate = search.getFrom() != null ? search.getFrom().atStartOfDay() : MIN_DATE;
+        LocalDateTime toDate = search.getTo() != null ? search.getTo().plusDays(1).atStartOfDay() : MAX_DATE;
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setTimeout(SEARCH_TIMEOUT_SECONDS);
+        return template.execute(status -> {
+            List<Long> categoryIds = search.getQ() != null && !search.getQ().isBlank()
+                    ? categoryRepository.findIdsByUserIdAndNameLike(userId,
+                            TransactionSpecifications.containsPattern(search.getQ()))
+                    : List.of();
+            return transactionRepository.findBy(
+                    TransactionSpecifications.search(userId, search, fromDate, toDate, cursor, categoryIds),
+                    query -> query.sortBy(NEWEST_FIRST).limit(limit).all());
+        });
+    }
+
+    // Las bajas se conservan este tiempo; un token más viejo obliga al cliente a resincronizar todo
+    private static final Duration TOMBSTONE_RETENTION = Duration.ofDays(30);
+    private static final int SYNC_PAGE_SIZE = 500;
+
+    /*
+     * Devuelve las filas con change_id (ver V15) desde el token, por páginas en orden (change_id, id).
+     * La primera página calcula el horizonte: el xmin del snapshot actual, anterior a la lectura de las
+     * filas. Las transacciones de la base con id menor ya terminaron, así que lo que confirme después,
+     * aunque haya empezado antes que esta sincronización, tiene change_id >= horizonte y entra en la
+     * siguiente. Las bajas van en la primera página; las filas pueden repetirse entre sincronizaciones.
+     */
+    public Map<String, Object> getChangesSince(Long userId, SyncToken since) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            boolean fullResync = since == null || since.issuedAt().isBefore(now.minus(TOMBSTONE_RETENTION));
+
+            SyncToken position;
+            List<Long> deleted = List.of();
+            if (fullResync) {
+                position = new SyncToken(now, 0, 0, transactionRepository.currentChangeHorizon());
+            } else if (since.isCompleted()) {
+                position = new SyncToken(now, since.changeId(), 0, transactionRepository.currentChangeHorizon());
+                deleted = tombstoneRepository.findDeletedIdsSince(userId, since.changeId());
+            } else {
+                position = since;
+            }
+
+            List<TransactionDTO> changed = transactionRepository.findChangedAfter(userId, position.changeId(),
+                    position.afterId(), Limit.of(SYNC_PAGE_SIZE));
+            boolean hasMore = changed.size() == SYNC_PAGE_SIZE;
+            SyncToken next = SyncToken.completed(position.issuedAt(), position.horizon());
+            if (hasMore) {
+                TransactionDTO last = changed.get(changed.size() - 1);
+                next = new SyncToken(position.issuedAt(), last.getChangeId(), last.getId(), position.horizon());
+            }
+
+            // El cliente aplica los cambios por id, así que recibir dos veces la misma fila no tiene efecto.
+            // Solo la primera página de una resincronización reemplaza los datos locales
+            Map<String, Object> changes = new HashMap<>();
+            changes.put("transactions", changed);
+            changes.put("deleted", deleted);
+            changes.put("fullResync", fullResync);
+            changes.put("hasMore", hasMore);
+            changes.put("syncToken", next.encode());
+            return changes;
+        });
+    }
+
+    @Scheduled(cron = "0 0 4 * * *")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(TOMBSTONE_RETENTION));
+        if (purged > 0) {
+            log.info("Purged {} transaction tombstones", purged);
+        }
+    }
+
+    @Transactional
+    public void streamTransactionsByUserId(Long userId, Consumer<TransactionDTO> consumer) {
+        // Las filas son DTOs, no entidades: el contexto de persistencia no crece con el historial
+        try (Stream<TransactionDTO> transactions = transactionRepository.streamByUserId(userId)) {
+            transactions.forEach(consumer);
+        }
     }
 
+    @Transactional
     public ResponseEntity<Map<String, Object>> deleteTransaction(Long id, User user) {
-        Optional<Transaction> transactionOptional = transactionRepository.findById(id);
+        Optional<Transaction> transactionOptional = transactionRepository.findByIdForUpdate(id);
         if (transactionOptional.isPresent()) {
             Transaction transaction = transactionOptional.get();
             if (transaction.getUser().getId().equals(user.getId())) {
-                if(transaction.getImage() != null) {
-                    String filename = String.format("image-%d-%d.jpg", user.getId(), id);
-                    try {
-                        Files.deleteIfExists(Paths.get("./ahorrapp-images/" + filename));
-                    } catch (IOException e) {
-                        return ResponseEntity.badRequest().body(Map.of("message", "Error deleting image"));
-                    }
-                }
+                releaseImages(transaction);
                 transactionRepository.deleteById(id);
+                tombstoneRepository.save(new TransactionTombstone(id, user.getId(), LocalDateTime.now()));
+                statisticsService.removeTransaction(user.getId(), transaction.getDate(),
+                        transaction.getCategory().getId(), transaction.getType(),
+                        new Money(transaction.getAmount(), transaction.getCurrency()));
+                categoryService.deleteIfUnused(transaction.getCategory());
+                dataVersionService.bump(user.getId());
                 return ResponseEntity.ok(Map.of("message", "Transaction deleted successfully"));
             } else {
                 return ResponseEntity.badRequest().body(Map.of("message", "Transaction not found"));
@@ -64,59 +229,96 @@ public class TransactionService {
         }
     }
 
+    @Transactional
     public Transaction createTransaction(TransactionDTO transactionRequest, User user) {
-        Transaction transaction = new Transaction();
-        transaction.setType(transactionRequest.getType());
-        transaction.setCategory(transactionRequest.getCategory());
-        transaction.setAmount(transactionRequest.getAmount());
-        transaction.setDescription(transactionRequest.getDescription());
-        transaction.setDate(transactionRequest.getDate());
+        Transaction transaction = mapperDTOModel.mapToModel(transactionRequest);
+        transaction.setCategory(categoryService.resolve(user.getId(), transactionRequest.getCategory()));
         transaction.setUser(user);
+        // Con ids de secuencia el id ya está asignado antes del INSERT, así que la imagen
+        // se guarda primero y la fila se inserta una sola vez al hacer flush
         Transaction savedTransaction = transactionRepository.save(transaction);
 
         // Guardar la imagen en el servidor
-        String imagePath = null;
         if (transactionRequest.getImage() != null) {
             try {
-                imagePath = saveImage(transactionRequest.getImage(), user.getId(), savedTransaction.getId());
+                setImage(savedTransaction, imageService.saveImage(transactionRequest.getImage()));
             } catch (IOException e) {
                 throw new RuntimeException("Error saving image", e);
             }
+            imageProcessingService.submitAfterCommit(savedTransaction);
+        }
+        statisticsService.addTransaction(savedTransaction);
+        dataVersionService.bump(user.getId());
+        return savedTransaction;
+    }
+
+    // Inserta un lote de la importación masiva: un único flush agrupado en batches JDBC
+    @Transactional
+    public List<Transaction> importTransactions(List<TransactionDTO> rows, Long userId) {
+        User user = userRepository.getReferenceById(userId);
+        Map<String, Category> categories = new HashMap<>();
+        List<Transaction> transactions = new ArrayList<>(rows.size());
+        for (TransactionDTO row : rows) {
+            Transaction transaction = mapperDTOModel.mapToModel(row);
+            transaction.setCategory(categories.computeIfAbsent(row.getCategory(),
+                    name -> categoryService.resolve(userId, name)));
+            transaction.setUser(user);
+            transactions.add(transaction);
         }
-        savedTransaction.setImage(imagePath);
-        return transactionRepository.save(savedTransaction);
+        List<Transaction> savedTransactions = transactionRepository.saveAllAndFlush(transactions);
+        statisticsService.addTransactions(userId, savedTransactions);
+        dataVersionService.bump(userId);
+        entityManager.clear();
+        return savedTransactions;
     }
 
-    public List<String> getCategories(Long id) {
-        return transactionRepository.findDistinctCategoriesByUserId(id);
+    public Optional<Transaction> getTransaction(Long id, Long userId) {
+        return transactionRepository.findById(id)
+                .filter(transaction -> transaction.getUser().getId().equals(userId));
     }
 
+    @Transactional
     public Transaction updateTransaction(TransactionDTO transactionRequest, User user) throws IOException {
-        Optional<Transaction> transactionOptional = transactionRepository.findById(transactionRequest.getId());
+        Optional<Transaction> transactionOptional = transactionRepository.findByIdForUpdate(transactionRequest.getId());
         if (transactionOptional.isPresent()) {
             Transaction transaction = transactionOptional.get();
             if (transaction.getUser().getId().equals(user.getId())) { // como no va a pasar que se agrega una imagen cuando hay otra imagen, se puede agregar sin problemas
                 if (transactionRequest.getImage() != null) {
                     try {
-                        String newImagePath = saveImage(transactionRequest.getImage(), user.getId(),
-                                transaction.getId());
-                        transaction.setImage(newImagePath);
+                        byte[] upload = ImageService.decode(transactionRequest.getImage());
+                        String uploadHash = ImageService.sha256(upload);
+                        // Se compara con lo que se subió (o con la imagen que sirve, para filas anteriores a
+                        // upload_hash): si es la misma, se conservan la imagen procesada y la miniatura
+                        if (!uploadHash.equals(transaction.getUploadHash()) && !uploadHash.equals(transaction.getImageHash())) {
+                            StoredImage newImage = imageService.saveImage(upload);
+                            releaseImages(transaction);
+                            setImage(transaction, newImage);
+                            imageProcessingService.submitAfterCommit(transaction);
+                        }
                     } catch (IOException e) {
                         throw new RuntimeException("Error saving new image", e);
                     }
-                } else {
-                    if (transaction.getImage() != null) {
-                        String filename = String.format("image-%d-%d.jpg", transactionRequest.getUserId(), transactionRequest.getId());
-                        Files.deleteIfExists(Paths.get("./ahorrapp-images/" + filename));
-                        transaction.setImage(null);
-                    }
+                } else if (transactionRequest.getImageEtag() == null && transaction.getImage() != null) {
+                    // El cliente ya no referencia la imagen: se libera
+                    releaseImages(transaction);
+                    setImage(transaction, null);
                 }
+                Category previousCategory = transaction.getCategory();
+                statisticsService.removeTransaction(user.getId(), transaction.getDate(), previousCategory.getId(),
+                        transaction.getType(), new Money(transaction.getAmount(), transaction.getCurrency()));
                 transaction.setType(transactionRequest.getType());
-                transaction.setCategory(transactionRequest.getCategory());
+                transaction.setCategory(categoryService.resolve(user.getId(), transactionRequest.getCategory()));
                 transaction.setAmount(transactionRequest.getAmount());
+                transaction.setCurrency(Money.currency(transactionRequest.getCurrency()));
                 transaction.setDescription(transactionRequest.getDescription());
                 transaction.setDate(transactionRequest.getDate());
-                return transactionRepository.save(transaction);
+                Transaction savedTransaction = transactionRepository.save(transaction);
+                statisticsService.addTransaction(savedTransaction);
+                if (!previousCategory.getId().equals(savedTransaction.getCategory().getId())) {
+                    categoryService.deleteIfUnused(previousCategory);
+                }
+                dataVersionService.bump(user.getId());
+                return savedTransaction;
             } else {
                 throw new IllegalArgumentException("Unauthorized transaction update");
             }
@@ -125,27 +327,75 @@ public class TransactionService {
         }
     }
 
-    private String saveImage(String base64Image, Long userId, Long transactionId) throws IOException {
-        if (base64Image == null || base64Image.isEmpty()) {
-            return null;
-        }
-
-        System.out.println(base64Image);
-
-        String directoryPath = "./ahorrapp-images/";
-        Files.createDirectories(Paths.get(directoryPath));
-
-        // Guardar archivo
-        String filename = String.format("image-%d-%d.txt", userId, transactionId);
-        Path imagePath = Paths.get(directoryPath + filename);
-        Files.writeString(imagePath, base64Image);
+    // La miniatura se vuelve a generar en segundo plano para cada imagen nueva
+    private void setImage(Transaction transaction, StoredImage image) {
+        transaction.setImage(image != null ? image.hash() : null);
+        transaction.setImageHash(image != null ? image.hash() : null);
+        transaction.setImageSize(image != null ? image.size() : null);
+        transaction.setUploadHash(image != null ? image.hash() : null);
+        transaction.setThumbnail(null);
+    }
 
-        return filename;
+    // Cada columna que apunta a un blob es una referencia; los archivos los borra el GC de ImageService
+    private void releaseImages(Transaction transaction) {
+        imageService.release(transaction.getImage());
+        imageService.release(transaction.getThumbnail());
     }
 
-    public void changeCategories(Long id, String newCategory, List<String> oldCategories) {
-        transactionRepository.changeCategories(id, newCategory, oldCategories);
+    // Pasa las imágenes del directorio plano (.txt en base64 o .jpg) al ImageStore, conservando la miniatura
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyImages() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        List<Transaction> batch;
+        while (!(batch = transactionRepository.findWithLegacyImage(Limit.of(100))).isEmpty()) {
+            for (Transaction transaction : batch) {
+                String legacyImage = transaction.getImage();
+                String legacyThumbnail = transaction.getThumbnail();
+                try {
+                    template.executeWithoutResult(status -> migrateLegacyImage(transaction));
+                    dataVersionService.bump(transaction.getUser().getId());
+                    imageService.deleteLegacyImage(legacyImage);
+                    if (imageService.isLegacyImage(legacyThumbnail)) {
+                        imageService.deleteLegacyImage(legacyThumbnail);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.error("Legacy image migration stopped at transaction {}", transaction.getId(), e);
+                    return;
+                }
+            }
+        }
     }
 
+    private void migrateLegacyImage(Transaction transaction) {
+        String legacyImage = transaction.getImage();
+        String legacyThumbnail = transaction.getThumbnail();
+        try {
+            byte[] bytes;
+            try {
+                bytes = imageService.readLegacyImage(legacyImage);
+            } catch (IOException e) {
+                log.warn("Discarding unreadable legacy image {} of transaction {}", legacyImage, transaction.getId(), e);
+                setImage(transaction, null);
+                transactionRepository.save(transaction);
+                return;
+            }
+            StoredImage image = imageService.saveImage(bytes);
+            setImage(transaction, image);
+            if (legacyImage.equals(legacyThumbnail)) {
+                imageService.acquire(image.hash());
+                transaction.setThumbnail(image.hash());
+            } else if (imageService.isLegacyImage(legacyThumbnail)) {
+                try {
+                    transaction.setThumbnail(imageService.saveImage(imageService.readLegacyImage(legacyThumbnail)).hash());
+                } catch (IOException e) {
+                    // Queda sin miniatura y la regenera el barrido de ImageProcessingService
+                    log.warn("Discarding unreadable legacy thumbnail {}", legacyThumbnail, e);
+                }
+            }
+            transactionRepository.save(transaction);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
 }
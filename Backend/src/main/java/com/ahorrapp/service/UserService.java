@@ -1,13 +1,17 @@
 package com.ahorrapp.service;
 
+import com.ahorrapp.config.CacheConfig;
 import com.ahorrapp.dto.UserRequestDTO;
 import com.ahorrapp.dto.UserResponseDTO;
 import com.ahorrapp.model.User;
 import com.ahorrapp.repository.UserRepository;
+import com.ahorrapp.util.AuthenticatedUser;
 import com.ahorrapp.util.mapperDTOModel;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -19,29 +23,56 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     public User createUser(UserRequestDTO user) {
         User newUser = new User();
         newUser.setName(user.getName());
         newUser.setLastname(user.getLastname());
         newUser.setEmail(user.getEmail());
-        newUser.setPassword(passwordEncoder.encode(user.getPassword()));
+        newUser.setPassword(passwordHashingService.encode(user.getPassword()));
         return userRepository.save(newUser);
     }
 
     public boolean verifyPassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return passwordHashingService.matches(rawPassword, encodedPassword);
+    }
+
+    // Tras un login correcto: regenera el hash si se creó con otro algoritmo o un costo menor al actual
+    public boolean rehashPasswordIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.needsUpgrade(user.getPassword())) {
+            return false;
+        }
+        user.setPassword(passwordHashingService.encode(rawPassword));
+        return true;
     }
     
-    public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+    // Las cachés guardan solo id y email (lo que necesita el filtro de autenticación), nunca la entidad con
+    // el hash de la contraseña; los registros son inmutables, así que nadie puede modificar la copia cacheada
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_ID, key = "#id", unless = "#result == null")
+    public Optional<AuthenticatedUser> getUserById(Long id) {
+        return userRepository.findById(id).map(UserService::toAuthenticatedUser);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#email", unless = "#result == null")
+    public AuthenticatedUser getUserByEmail(String email) {
+        User user = userRepository.findByEmail(email);
+        return user != null ? toAuthenticatedUser(user) : null;
     }
 
-    public User getUserByEmail(String email) {
+    // Entidad completa, sin caché: el login necesita el hash y puede regenerarlo
+    public User getUserForLogin(String email) {
         return userRepository.findByEmail(email);
     }
 
+    // Referencia para asociar transacciones al usuario sin volver a cargarlo
+    public User getUserReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL, allEntries = true) })
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
     }
@@ -50,7 +81,16 @@ public class UserService {
         return userRepository.findAll().stream().map(mapperDTOModel::mapToResponseDTO).toList();
     }
 
+    // Cambio de contraseña o de email: el email anterior no se conoce acá (la entidad ya llega modificada),
+    // así que se vacía la caché por email, como al borrar
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_ID, key = "#user.id"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL, allEntries = true) })
     public User updateUser(User user) {
         return userRepository.save(user);
     }
+
+    private static AuthenticatedUser toAuthenticatedUser(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail());
+    }
 }
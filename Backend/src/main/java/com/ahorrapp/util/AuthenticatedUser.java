@@ -0,0 +1,12 @@
+package com.ahorrapp.util;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+// Principal guardado en el SecurityContext: evita buscar el usuario por email en cada request
+public record AuthenticatedUser(Long id, String email) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
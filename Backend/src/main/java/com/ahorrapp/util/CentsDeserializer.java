@@ -0,0 +1,43 @@
+package com.ahorrapp.util;
+
+import com.ahorrapp.model.Money;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// Acepta 12.34, 12 o "12.34" (CSV) y los convierte a centavos sin pasar por double
+public class CentsDeserializer extends StdDeserializer<Long> {
+
+    public CentsDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        try {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return Math.multiplyExact(parser.getLongValue(), 100L);
+            }
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+                return Money.toCents(parser.getDecimalValue());
+            }
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                return Money.toCents(new BigDecimal(parser.getText().trim()));
+            }
+        } catch (IllegalArgumentException | ArithmeticException e) { // NumberFormatException incluida
+            throw JsonMappingException.from(parser, "Invalid amount: " + e.getMessage(), e);
+        }
+        return (Long) context.handleUnexpectedToken(Long.class, parser);
+    }
+
+    // Sin monto queda en 0 y lo rechaza la validación (@Positive)
+    @Override
+    public Long getNullValue(DeserializationContext context) {
+        return 0L;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ahorrapp.util;
+
+import com.ahorrapp.model.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Los montos viajan en JSON como número decimal (12.34) aunque en memoria sean centavos
+public class CentsSerializer extends StdSerializer<Long> {
+
+    public CentsSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long cents, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeNumber(Money.format(cents));
+    }
+}
@@ -12,6 +12,10 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+
+import com.ahorrapp.service.UserService;
+
+import io.jsonwebtoken.Claims;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 
@@ -21,20 +25,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserService userService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            if (jwtUtil.validateToken(token)) {
-                String email = jwtUtil.extractEmail(token);
+            jwtUtil.parseToken(token).map(this::toPrincipal).ifPresent(principal -> {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        email, null, null);
+                        principal, null, null);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+            });
         }
         chain.doFilter(request, response);
     }
+
+    private AuthenticatedUser toPrincipal(Claims claims) {
+        String email = claims.getSubject();
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        if (userId == null) { // tokens emitidos antes de incluir el id del usuario
+            return userService.getUserByEmail(email);
+        }
+        return new AuthenticatedUser(userId, email);
+    }
 }
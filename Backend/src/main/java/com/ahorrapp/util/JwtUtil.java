@@ -3,67 +3,136 @@ package com.ahorrapp.util;
 import io.github.cdimascio.dotenv.Dotenv;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
-    private static final Dotenv dotenv = Dotenv.load();
-    private final String SECRET_KEY = loadSecretKey();
     private final long ACCESS_TOKEN_EXPIRATION = 15 * 60 * 1000; // 15 minutos
-    private final long REFRESH_TOKEN_EXPIRATION = 7 * 24 * 60 * 60 * 1000; // 7 días
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+    public static final String USER_ID_CLAIM = "uid";
+
+    // La clave y el parser se construyen una sola vez; JwtParser es inmutable y thread-safe
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    // Tokens ya verificados, cada uno descartado al vencer, para no repetir la firma HMAC en cada request.
+    // La clave es el SHA-256 del token: la caché no guarda credenciales utilizables
+    private final Cache<String, Claims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(
+                            Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()));
+                }
+
+                @Override
+                public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    // Tiempo de validación según cómo se resolvió el token: caché, firma verificada o rechazado
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer invalidTimer;
 
+    public JwtUtil(String secretKey) {
+        this(secretKey, new SimpleMeterRegistry());
+    }
+
+    // JWT_SECRET_KEY se toma de la configuración de Spring (variables de entorno, .env importado) o, si falta, del .env
+    @Autowired
+    public JwtUtil(@Value("${JWT_SECRET_KEY:}") String secretKey, MeterRegistry meterRegistry) {
+        if (secretKey == null || secretKey.isEmpty()) {
+            secretKey = loadSecretKey();
+        }
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.cachedTimer = Timer.builder("ahorrapp.jwt.validation").tag("result", "cached").register(meterRegistry);
+        this.verifiedTimer = Timer.builder("ahorrapp.jwt.validation").tag("result", "verified").register(meterRegistry);
+        this.invalidTimer = Timer.builder("ahorrapp.jwt.validation").tag("result", "invalid").register(meterRegistry);
+    }
 
-    private String loadSecretKey() {
-        String secret = dotenv.get("JWT_SECRET_KEY");
+    private static String loadSecretKey() {
+        String secret = Dotenv.load().get("JWT_SECRET_KEY");
         if (secret == null || secret.isEmpty()) {
             throw new IllegalStateException("JWT_SECRET_KEY is not defined or empty in the environment");
         }
         return secret;
     }
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
-    }
-
-    public String generateAccessToken(String email) {
+    public String generateAccessToken(Long userId, String email) {
         return Jwts.builder()
                 .setSubject(email)
+                .claim(USER_ID_CLAIM, userId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_EXPIRATION))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String generateRefreshToken(String email) {
-        return Jwts.builder()
-                .setSubject(email)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + REFRESH_TOKEN_EXPIRATION))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+    // Verifica firma y vencimiento una sola vez y devuelve los claims; vacío si el token no es válido
+    public Optional<Claims> parseToken(String token) {
+        long start = System.nanoTime();
+        String digest = sha256(token);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.getExpiration().getTime() > System.currentTimeMillis()) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(cached);
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, claims);
+            }
+            verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseToken(token).map(Claims::getSubject).orElse(null);
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return parseToken(token).isPresent();
     }
 }
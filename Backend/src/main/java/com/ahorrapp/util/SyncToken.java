@@ -0,0 +1,43 @@
+package com.ahorrapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque token handed to the client after each call to /transactions/changes. Between syncs it holds the
+ * change id (see V15) from which the next sync starts; while a sync is being paged it holds the keyset
+ * position (changeId, afterId) and the change id the following sync will start from (horizon).
+ * issuedAt is when the sync started, used to detect tokens older than the tombstone retention.
+ */
+public record SyncToken(LocalDateTime issuedAt, long changeId, long afterId, long horizon) {
+
+    public static SyncToken completed(LocalDateTime issuedAt, long changeId) {
+        return new SyncToken(issuedAt, changeId, 0, changeId);
+    }
+
+    // Transaction ids are positive, so afterId = 0 marks a token between syncs
+    public boolean isCompleted() {
+        return afterId == 0;
+    }
+
+    public String encode() {
+        String raw = issuedAt + "|" + changeId + "|" + afterId + "|" + horizon;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+            return new SyncToken(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                    Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) { // NumberFormatException incluida
+            throw new IllegalArgumentException("Invalid sync token", e);
+        }
+    }
+}
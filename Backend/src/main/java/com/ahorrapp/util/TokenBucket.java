@@ -0,0 +1,54 @@
+package com.ahorrapp.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket: admite ráfagas de hasta capacity intentos y se recarga a refillPerMinute por minuto.
+ * Los tokens se recalculan al consumir, sin hilos ni timers.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private final LongSupplier clock;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(int capacity, int refillPerMinute) {
+        this(capacity, refillPerMinute, System::nanoTime);
+    }
+
+    TokenBucket(int capacity, int refillPerMinute, LongSupplier clock) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) refillPerMinute / NANOS_PER_MINUTE;
+        this.clock = clock;
+        this.tokens = capacity;
+        this.lastRefill = clock.getAsLong();
+    }
+
+    public synchronized boolean tryConsume() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    // Segundos hasta que haya un token disponible, para el header Retry-After
+    public synchronized long secondsUntilAvailable() {
+        refill();
+        if (tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano / 1_000_000_000L);
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
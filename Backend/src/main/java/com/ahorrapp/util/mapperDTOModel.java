@@ -1,12 +1,10 @@
 package com.ahorrapp.util;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
+import com.ahorrapp.dto.RecurringRuleDTO;
 import com.ahorrapp.dto.TransactionDTO;
 import com.ahorrapp.dto.UserResponseDTO;
+import com.ahorrapp.model.Money;
+import com.ahorrapp.model.RecurringRule;
 import com.ahorrapp.model.Transaction;
 import com.ahorrapp.model.User;
 
@@ -25,27 +23,42 @@ public class mapperDTOModel {
         TransactionDTO dto = new TransactionDTO();
         dto.setId(transaction.getId());
         dto.setType(transaction.getType());
-        dto.setCategory(transaction.getCategory());
+        dto.setCategory(transaction.getCategory().getName());
         dto.setAmount(transaction.getAmount());
+        dto.setCurrency(transaction.getCurrency());
         dto.setDescription(transaction.getDescription());
         dto.setDate(transaction.getDate());
-        dto.setImage(returnImage(transaction.getImage()));
+        dto.setImageEtag(transaction.getImageHash());
+        dto.setImageSize(transaction.getImageSize());
         dto.setUserId(transaction.getUser().getId());
         return dto;
     }
 
-    private static String returnImage(String imagePath) {
-        if (imagePath == null || imagePath.isEmpty()) {
-            return null;
-        }
+    public static RecurringRuleDTO mapToResponseDTO(RecurringRule rule) {
+        RecurringRuleDTO dto = new RecurringRuleDTO();
+        dto.setId(rule.getId());
+        dto.setType(rule.getType());
+        dto.setCategory(rule.getCategory().getName());
+        dto.setAmount(rule.getAmount());
+        dto.setCurrency(rule.getCurrency());
+        dto.setDescription(rule.getDescription());
+        dto.setFrequency(rule.getFrequency());
+        dto.setStartDate(rule.getStartDate());
+        dto.setEndDate(rule.getEndDate());
+        dto.setActive(rule.getActive());
+        dto.setNextRun(rule.getNextRun());
+        return dto;
+    }
 
-        try {
-            Path path = Paths.get("./ahorrapp-images/" + imagePath);
-            String base64Image = new String(Files.readAllBytes(path));
-            return base64Image;
-        } catch (IOException e) {
-            return null; // Si la imagen no existe, devolvemos null
-        }
+    // Solo los campos editables; la categoría, el usuario y la imagen los asigna el servicio
+    public static Transaction mapToModel(TransactionDTO dto) {
+        Transaction transaction = new Transaction();
+        transaction.setType(dto.getType());
+        transaction.setAmount(dto.getAmount());
+        transaction.setCurrency(Money.currency(dto.getCurrency()));
+        transaction.setDescription(dto.getDescription());
+        transaction.setDate(dto.getDate());
+        return transaction;
     }
 
 }
@@ -0,0 +1,13 @@
+-- Imágenes direccionadas por contenido: un archivo por SHA-256, compartido por todas las transacciones que
+-- lo usan. ref_count cuenta las referencias (transactions.image y transactions.thumbnail); los blobs sin
+-- referencias los borra el recolector de ImageService pasado el período de gracia desde touched_at.
+-- Las imágenes del directorio plano anterior se migran al iniciar la aplicación.
+
+CREATE TABLE IF NOT EXISTS image_blobs (
+    hash varchar(64) PRIMARY KEY,
+    size bigint NOT NULL,
+    ref_count integer NOT NULL DEFAULT 0,
+    touched_at timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_image_blobs_orphaned ON image_blobs (touched_at) WHERE ref_count <= 0;
@@ -0,0 +1,84 @@
+-- Montos exactos: enteros en centavos (dos decimales fijos) más el código ISO 4217 de la moneda.
+-- Los montos existentes se redondean al centavo y se asumen en pesos (ARS).
+-- Corre fuera de una transacción (ver .conf) para confirmar cada lote y no bloquear las tablas: las columnas
+-- nuevas se llenan en lotes y un trigger las mantiene al día mientras tanto. El corte (NOT NULL, borrar las
+-- columnas en float) queda para V13.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS amount_cents bigint;
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS currency varchar(3) NOT NULL DEFAULT 'ARS';
+ALTER TABLE recurring_rules ADD COLUMN IF NOT EXISTS amount_cents bigint;
+ALTER TABLE recurring_rules ADD COLUMN IF NOT EXISTS currency varchar(3) NOT NULL DEFAULT 'ARS';
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS limit_cents bigint;
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS currency varchar(3) NOT NULL DEFAULT 'ARS';
+
+-- Las filas escritas durante el backfill ya llegan con los centavos calculados
+CREATE OR REPLACE FUNCTION sync_amount_cents() RETURNS trigger AS $$
+BEGIN
+    NEW.amount_cents := round(NEW.amount::numeric * 100);
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION sync_limit_cents() RETURNS trigger AS $$
+BEGIN
+    NEW.limit_cents := round(NEW.limit_amount::numeric * 100);
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_transactions_amount_cents ON transactions;
+CREATE TRIGGER trg_transactions_amount_cents BEFORE INSERT OR UPDATE OF amount ON transactions
+    FOR EACH ROW EXECUTE FUNCTION sync_amount_cents();
+DROP TRIGGER IF EXISTS trg_recurring_rules_amount_cents ON recurring_rules;
+CREATE TRIGGER trg_recurring_rules_amount_cents BEFORE INSERT OR UPDATE OF amount ON recurring_rules
+    FOR EACH ROW EXECUTE FUNCTION sync_amount_cents();
+DROP TRIGGER IF EXISTS trg_budgets_limit_cents ON budgets;
+CREATE TRIGGER trg_budgets_limit_cents BEFORE INSERT OR UPDATE OF limit_amount ON budgets
+    FOR EACH ROW EXECUTE FUNCTION sync_limit_cents();
+
+DO $$
+DECLARE
+    updated integer;
+BEGIN
+    LOOP
+        UPDATE transactions SET amount_cents = round(amount::numeric * 100)
+        WHERE id IN (SELECT id FROM transactions WHERE amount_cents IS NULL LIMIT 5000);
+        GET DIAGNOSTICS updated = ROW_COUNT;
+        EXIT WHEN updated = 0;
+        COMMIT;
+    END LOOP;
+    LOOP
+        UPDATE recurring_rules SET amount_cents = round(amount::numeric * 100)
+        WHERE id IN (SELECT id FROM recurring_rules WHERE amount_cents IS NULL LIMIT 5000);
+        GET DIAGNOSTICS updated = ROW_COUNT;
+        EXIT WHEN updated = 0;
+        COMMIT;
+    END LOOP;
+    LOOP
+        UPDATE budgets SET limit_cents = round(limit_amount::numeric * 100)
+        WHERE id IN (SELECT id FROM budgets WHERE limit_cents IS NULL LIMIT 5000);
+        GET DIAGNOSTICS updated = ROW_COUNT;
+        EXIT WHEN updated = 0;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- Un CHECK validado le permite a SET NOT NULL (V13) omitir el recorrido de la tabla bajo el bloqueo exclusivo.
+-- NOT VALID solo toma el bloqueo un instante; VALIDATE recorre la tabla sin frenar las escrituras.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ck_transactions_amount_cents') THEN
+        ALTER TABLE transactions ADD CONSTRAINT ck_transactions_amount_cents CHECK (amount_cents IS NOT NULL) NOT VALID;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ck_recurring_rules_amount_cents') THEN
+        ALTER TABLE recurring_rules ADD CONSTRAINT ck_recurring_rules_amount_cents CHECK (amount_cents IS NOT NULL) NOT VALID;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ck_budgets_limit_cents') THEN
+        ALTER TABLE budgets ADD CONSTRAINT ck_budgets_limit_cents CHECK (limit_cents IS NOT NULL) NOT VALID;
+    END IF;
+END $$;
+
+ALTER TABLE transactions VALIDATE CONSTRAINT ck_transactions_amount_cents;
+ALTER TABLE recurring_rules VALIDATE CONSTRAINT ck_recurring_rules_amount_cents;
+ALTER TABLE budgets VALIDATE CONSTRAINT ck_budgets_limit_cents;
+
+-- Reemplaza a idx_transactions_user_amount, que se borra junto con la columna amount
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_amount_cents ON transactions (user_id, amount_cents);
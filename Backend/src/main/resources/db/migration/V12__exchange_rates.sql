@@ -0,0 +1,11 @@
+-- Cotizaciones diarias cargadas desde un archivo o /exchange-rates/import (no hay servicio externo).
+-- rate es el valor de una unidad de currency expresado en la moneda de referencia (ARS); la conversión
+-- entre dos monedas cualesquiera pasa por la referencia. Una fecha sin fila usa la cotización anterior.
+CREATE TABLE exchange_rates (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    currency varchar(3) NOT NULL,
+    rate_date date NOT NULL,
+    rate numeric(20, 8) NOT NULL CHECK (rate > 0),
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_exchange_rates_currency_date UNIQUE (currency, rate_date)
+);
@@ -0,0 +1,37 @@
+-- Corte de V11: las columnas en centavos ya están completas y validadas, así que SET NOT NULL y DROP COLUMN
+-- solo tocan el catálogo y el bloqueo exclusivo dura un instante.
+
+-- Los totales acumulados en float ya arrastran error: se vacían y se recalculan exactos desde las
+-- transacciones, ya en centavos. Cada moneda tiene sus propios totales. SHARE frena las escrituras en
+-- transactions mientras se recalcula, pero no las lecturas.
+LOCK TABLE transactions IN SHARE MODE;
+DELETE FROM transaction_rollups;
+ALTER TABLE transaction_rollups ALTER COLUMN total TYPE bigint;
+ALTER TABLE transaction_rollups RENAME COLUMN total TO total_cents;
+ALTER TABLE transaction_rollups ADD COLUMN currency varchar(3) NOT NULL DEFAULT 'ARS';
+ALTER TABLE transaction_rollups DROP CONSTRAINT uk_transaction_rollups_bucket;
+ALTER TABLE transaction_rollups ADD CONSTRAINT uk_transaction_rollups_bucket UNIQUE (user_id, month, category_id, type, currency);
+
+INSERT INTO transaction_rollups (user_id, month, category_id, type, currency, total_cents, transaction_count)
+SELECT user_id, to_char(date, 'YYYY-MM'), category_id, type, currency, SUM(amount_cents), COUNT(*)
+FROM transactions
+GROUP BY user_id, to_char(date, 'YYYY-MM'), category_id, type, currency;
+
+ALTER TABLE transactions ALTER COLUMN amount_cents SET NOT NULL;
+ALTER TABLE transactions DROP CONSTRAINT ck_transactions_amount_cents;
+DROP TRIGGER trg_transactions_amount_cents ON transactions;
+ALTER TABLE transactions DROP COLUMN amount;
+ALTER INDEX idx_transactions_user_amount_cents RENAME TO idx_transactions_user_amount;
+
+ALTER TABLE recurring_rules ALTER COLUMN amount_cents SET NOT NULL;
+ALTER TABLE recurring_rules DROP CONSTRAINT ck_recurring_rules_amount_cents;
+DROP TRIGGER trg_recurring_rules_amount_cents ON recurring_rules;
+ALTER TABLE recurring_rules DROP COLUMN amount;
+
+ALTER TABLE budgets ALTER COLUMN limit_cents SET NOT NULL;
+ALTER TABLE budgets DROP CONSTRAINT ck_budgets_limit_cents;
+DROP TRIGGER trg_budgets_limit_cents ON budgets;
+ALTER TABLE budgets DROP COLUMN limit_amount;
+
+DROP FUNCTION sync_amount_cents();
+DROP FUNCTION sync_limit_cents();
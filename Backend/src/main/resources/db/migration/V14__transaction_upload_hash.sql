@@ -0,0 +1,4 @@
+-- Hash de la imagen tal como la subió el usuario. image_hash pasa a ser el de la versión recomprimida,
+-- así que sin esta columna volver a subir el mismo archivo no se reconoce como la misma imagen.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS upload_hash varchar(64);
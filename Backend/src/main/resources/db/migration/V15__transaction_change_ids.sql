@@ -0,0 +1,29 @@
+-- Cursor de /transactions/changes asignado por Postgres en lugar del reloj de la JVM. change_id es el id
+-- de la transacción de la base que escribió la fila (pg_current_xact_id, 64 bits, no se reinicia). Todo
+-- id menor que el xmin de un snapshot ya confirmó o abortó, así que ese xmin sirve como token: una
+-- transacción larga que confirma tarde tiene un id mayor o igual y entra en la sincronización siguiente.
+-- Las filas existentes quedan en 0; los tokens anteriores ya no son válidos y el cliente resincroniza.
+-- CONCURRENTLY no admite transacción (ver .conf).
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS change_id bigint NOT NULL DEFAULT 0;
+ALTER TABLE transaction_tombstones ADD COLUMN IF NOT EXISTS change_id bigint NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION set_change_id() RETURNS trigger AS $$
+BEGIN
+    NEW.change_id := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_transactions_change_id ON transactions;
+CREATE TRIGGER trg_transactions_change_id BEFORE INSERT OR UPDATE ON transactions
+    FOR EACH ROW EXECUTE FUNCTION set_change_id();
+DROP TRIGGER IF EXISTS trg_transaction_tombstones_change_id ON transaction_tombstones;
+CREATE TRIGGER trg_transaction_tombstones_change_id BEFORE INSERT ON transaction_tombstones
+    FOR EACH ROW EXECUTE FUNCTION set_change_id();
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_change ON transactions (user_id, change_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_tombstones_user_change
+    ON transaction_tombstones (user_id, change_id);
+
+-- updated_at ya no se consulta por usuario
+DROP INDEX CONCURRENTLY IF EXISTS idx_transactions_user_updated;
@@ -0,0 +1,6 @@
+-- Hash del token que reemplazó la última rotación de cada sesión. Si ese token vuelve a presentarse,
+-- alguien más lo tiene (el cliente legítimo ya recibió el nuevo) y la sesión se cierra.
+
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS previous_token_hash varchar(64);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_previous_hash ON refresh_tokens (previous_token_hash);
@@ -0,0 +1,5 @@
+-- Versión de los datos de cada usuario (ETag de los endpoints de lectura). Se incrementa en la misma
+-- transacción que la escritura, así todas las instancias ven el mismo valor y sobrevive a los reinicios.
+-- Una constante como default no reescribe la tabla.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS data_version bigint NOT NULL DEFAULT 0;
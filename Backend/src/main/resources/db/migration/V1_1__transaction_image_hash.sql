@@ -0,0 +1,5 @@
+-- Hash SHA-256 y tamaño de la imagen del comprobante (ETag y Range de /transactions/{id}/image).
+-- IF NOT EXISTS: las bases que corrieron con ddl-auto=update después de agregar estas columnas ya las tienen.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS image_hash varchar(64);
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS image_size bigint;
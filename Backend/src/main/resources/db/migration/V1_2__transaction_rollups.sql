@@ -0,0 +1,24 @@
+-- Totales mensuales por usuario, categoría y tipo que mantiene TransactionService en cada escritura.
+-- IF NOT EXISTS: las bases que corrieron con ddl-auto=update después de agregar la tabla ya la tienen.
+-- La carga inicial se hace acá, antes de que la aplicación atienda escrituras: un bucket creado por una
+-- escritura antes de la carga haría que se saltee el historial de ese usuario.
+
+CREATE TABLE IF NOT EXISTS transaction_rollups (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL,
+    month varchar(7) NOT NULL,
+    category varchar(255) NOT NULL,
+    type varchar(255) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    total float(53) NOT NULL,
+    transaction_count bigint NOT NULL,
+    CONSTRAINT uk_transaction_rollups_bucket UNIQUE (user_id, month, category, type)
+);
+
+-- Se recalcula todo desde transactions (también lo que haya dejado ddl-auto=update). El lock SHARE frena
+-- las escrituras de otras instancias mientras dura la agregación, para que ninguna quede afuera.
+LOCK TABLE transactions IN SHARE MODE;
+DELETE FROM transaction_rollups;
+INSERT INTO transaction_rollups (user_id, month, category, type, total, transaction_count)
+SELECT user_id, to_char(CAST(date AS timestamp), 'YYYY-MM'), category, type, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY user_id, to_char(CAST(date AS timestamp), 'YYYY-MM'), category, type;
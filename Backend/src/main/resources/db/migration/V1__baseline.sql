@@ -0,0 +1,23 @@
+-- Esquema original, generado por ddl-auto=update antes de introducir Flyway. Las bases existentes se marcan
+-- en esta versión (baseline-on-migrate) y solo las bases nuevas ejecutan este script, así que todo lo
+-- agregado después va en su propia migración.
+
+CREATE TABLE IF NOT EXISTS users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email varchar(255) NOT NULL UNIQUE,
+    lastname varchar(255) NOT NULL,
+    name varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    refresh_token text
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    amount float(53) NOT NULL,
+    category varchar(255) NOT NULL,
+    date varchar(255) NOT NULL,
+    description varchar(255),
+    image text,
+    type varchar(255) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    user_id bigint NOT NULL REFERENCES users (id)
+);
@@ -0,0 +1,29 @@
+-- Convierte transactions.date de texto ('yyyy-MM-dd HH:mm[:ss]') a timestamp.
+-- Corre fuera de una transacción (ver .conf) para confirmar cada lote y no bloquear la tabla.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS occurred_at timestamp(6);
+
+DO $$
+DECLARE
+    updated integer;
+BEGIN
+    LOOP
+        UPDATE transactions SET occurred_at = CAST(date AS timestamp)
+        WHERE id IN (SELECT id FROM transactions WHERE occurred_at IS NULL LIMIT 5000);
+        GET DIAGNOSTICS updated = ROW_COUNT;
+        EXIT WHEN updated = 0;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- Corte final: el bloqueo exclusivo solo cubre las filas insertadas durante el backfill
+DO $$
+BEGIN
+    LOCK TABLE transactions IN ACCESS EXCLUSIVE MODE;
+    UPDATE transactions SET occurred_at = CAST(date AS timestamp) WHERE occurred_at IS NULL;
+    ALTER TABLE transactions ALTER COLUMN occurred_at SET NOT NULL;
+    ALTER TABLE transactions DROP COLUMN date;
+    ALTER TABLE transactions RENAME COLUMN occurred_at TO date;
+END $$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_date ON transactions (user_id, date DESC, id DESC);
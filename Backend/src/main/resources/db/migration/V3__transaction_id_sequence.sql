@@ -0,0 +1,8 @@
+-- Ids de transactions desde una secuencia con incremento 50 (optimizador pooled de Hibernate)
+-- en lugar de IDENTITY, para poder agrupar los INSERT en batches.
+
+CREATE SEQUENCE IF NOT EXISTS transactions_seq INCREMENT BY 50;
+
+SELECT setval('transactions_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM transactions));
+
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY IF EXISTS;
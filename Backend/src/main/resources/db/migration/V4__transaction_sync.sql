@@ -0,0 +1,15 @@
+-- Sincronización incremental: fecha de última modificación por transacción y registro de bajas.
+-- now() es estable, así que Postgres agrega la columna sin reescribir la tabla.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_updated ON transactions (user_id, updated_at);
+
+CREATE TABLE IF NOT EXISTS transaction_tombstones (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    transaction_id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    deleted_at timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_tombstones_user_deleted ON transaction_tombstones (user_id, deleted_at);
@@ -0,0 +1,3 @@
+-- Miniatura de la imagen del comprobante, generada en segundo plano por ImageProcessingService
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS thumbnail text;
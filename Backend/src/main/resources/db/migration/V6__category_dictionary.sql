@@ -0,0 +1,66 @@
+-- Diccionario de categorías por usuario: transactions y transaction_rollups pasan a referenciar
+-- categories.id en lugar de repetir el nombre en cada fila.
+-- Corre fuera de una transacción (ver .conf) para confirmar cada lote y no bloquear la tabla.
+
+CREATE TABLE IF NOT EXISTS categories (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL REFERENCES users (id),
+    name varchar(255) NOT NULL,
+    updated_at timestamp(6) NOT NULL DEFAULT now(),
+    CONSTRAINT uk_categories_user_name UNIQUE (user_id, name)
+);
+
+INSERT INTO categories (user_id, name)
+SELECT DISTINCT user_id, category FROM transactions
+ON CONFLICT (user_id, name) DO NOTHING;
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS category_id bigint;
+
+DO $$
+DECLARE
+    updated integer;
+BEGIN
+    LOOP
+        UPDATE transactions t SET category_id = c.id
+        FROM categories c
+        WHERE c.user_id = t.user_id AND c.name = t.category
+          AND t.id IN (SELECT id FROM transactions WHERE category_id IS NULL LIMIT 5000);
+        GET DIAGNOSTICS updated = ROW_COUNT;
+        EXIT WHEN updated = 0;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- Corte final: el bloqueo exclusivo solo cubre las filas insertadas durante el backfill
+DO $$
+BEGIN
+    LOCK TABLE transactions IN ACCESS EXCLUSIVE MODE;
+    INSERT INTO categories (user_id, name)
+    SELECT DISTINCT user_id, category FROM transactions WHERE category_id IS NULL
+    ON CONFLICT (user_id, name) DO NOTHING;
+    UPDATE transactions t SET category_id = c.id
+    FROM categories c
+    WHERE t.category_id IS NULL AND c.user_id = t.user_id AND c.name = t.category;
+    ALTER TABLE transactions ALTER COLUMN category_id SET NOT NULL;
+    ALTER TABLE transactions ADD CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id);
+    ALTER TABLE transactions DROP COLUMN category;
+END $$;
+
+-- Los totales tienen una fila por mes/categoría/tipo: se convierten en un solo paso
+DO $$
+BEGIN
+    LOCK TABLE transaction_rollups IN ACCESS EXCLUSIVE MODE;
+    ALTER TABLE transaction_rollups ADD COLUMN category_id bigint;
+    INSERT INTO categories (user_id, name)
+    SELECT DISTINCT user_id, category FROM transaction_rollups
+    ON CONFLICT (user_id, name) DO NOTHING;
+    UPDATE transaction_rollups r SET category_id = c.id
+    FROM categories c
+    WHERE c.user_id = r.user_id AND c.name = r.category;
+    ALTER TABLE transaction_rollups DROP CONSTRAINT uk_transaction_rollups_bucket;
+    ALTER TABLE transaction_rollups DROP COLUMN category;
+    ALTER TABLE transaction_rollups ALTER COLUMN category_id SET NOT NULL;
+    ALTER TABLE transaction_rollups ADD CONSTRAINT uk_transaction_rollups_bucket UNIQUE (user_id, month, category_id, type);
+END $$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_category ON transactions (category_id);
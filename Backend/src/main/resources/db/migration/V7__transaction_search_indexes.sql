@@ -0,0 +1,7 @@
+-- Índices de GET /transactions/search. La expresión del índice GIN debe coincidir con la función
+-- ts_match registrada en SearchFunctionContributor. CONCURRENTLY no admite transacción (ver .conf).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_description_fts
+    ON transactions USING gin (to_tsvector('spanish', coalesce(description, '')));
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_amount ON transactions (user_id, amount);
@@ -0,0 +1,17 @@
+-- Refresh tokens fuera de la tabla users: una fila por sesión, guardando solo el hash SHA-256 del token.
+-- Las sesiones guardadas en users.refresh_token se descartan; esos usuarios vuelven a iniciar sesión.
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    token_hash varchar(64) NOT NULL,
+    device varchar(255),
+    created_at timestamp(6) NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_refresh_tokens_hash UNIQUE (token_hash)
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens (user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires ON refresh_tokens (expires_at);
+
+ALTER TABLE users DROP COLUMN IF EXISTS refresh_token;
@@ -0,0 +1,49 @@
+-- Reglas de transacciones recurrentes y presupuestos mensuales.
+-- El índice único sobre transactions se crea CONCURRENTLY para no bloquear escrituras (ver .conf),
+-- así que cada sentencia debe poder repetirse si la migración se interrumpe.
+
+CREATE TABLE IF NOT EXISTS recurring_rules (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    type varchar(255) NOT NULL,
+    category_id bigint NOT NULL REFERENCES categories (id),
+    amount double precision NOT NULL,
+    description varchar(255),
+    frequency varchar(255) NOT NULL,
+    start_date timestamp(6) NOT NULL,
+    end_date timestamp(6),
+    occurrences integer NOT NULL,
+    next_run timestamp(6),
+    active boolean NOT NULL,
+    updated_at timestamp(6) NOT NULL
+);
+
+-- Solo las reglas pendientes: es lo que recorre el motor en cada pasada
+CREATE INDEX IF NOT EXISTS idx_recurring_rules_due ON recurring_rules (next_run, user_id) WHERE active AND next_run IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_recurring_rules_user ON recurring_rules (user_id);
+
+CREATE TABLE IF NOT EXISTS budgets (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    category_id bigint REFERENCES categories (id),
+    limit_amount double precision NOT NULL,
+    warning_ratio double precision NOT NULL,
+    status varchar(255) NOT NULL,
+    status_month varchar(7),
+    updated_at timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_budgets_user ON budgets (user_id);
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS recurring_rule_id bigint;
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_transactions_recurring_occurrence
+    ON transactions (recurring_rule_id, date);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_transactions_recurring_rule') THEN
+        ALTER TABLE transactions ADD CONSTRAINT fk_transactions_recurring_rule FOREIGN KEY (recurring_rule_id)
+            REFERENCES recurring_rules (id) ON DELETE SET NULL NOT VALID;
+    END IF;
+END $$;
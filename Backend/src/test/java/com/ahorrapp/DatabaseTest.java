@@ -0,0 +1,65 @@
+package com.ahorrapp;
+
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+import com.ahorrapp.repository.UserRepository;
+import com.ahorrapp.util.JwtUtil;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Base de los tests que necesitan Postgres. Usan la base configurada (DB_NAME_MITURNO, ...), como
+ * AhorrapApplicationTests, con todas las migraciones aplicadas. Cada test trabaja con usuarios propios,
+ * así que pueden correr sobre una base que ya tiene datos. Comparten un único contexto de Spring.
+ */
+@SpringBootTest(properties = {
+        "JWT_SECRET_KEY=database-test-secret-key-with-at-least-256-bits-0123456789",
+        "ahorrapp.images.directory=target/test-images",
+        "ahorrapp.recurring.interval-ms=3600000",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ahorrapp.RecordingStatementInspector" })
+@AutoConfigureMockMvc
+public abstract class DatabaseTest {
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    protected User newUser() {
+        User user = new User();
+        user.setName("Test");
+        user.setLastname("User");
+        user.setEmail("test-" + UUID.randomUUID() + "@ahorrapp.com");
+        user.setPassword("unused");
+        return userRepository.save(user);
+    }
+
+    // Cabecera Authorization con un access token del usuario, para las llamadas con mockMvc
+    protected String bearer(User user) {
+        return "Bearer " + jwtUtil.generateAccessToken(user.getId(), user.getEmail());
+    }
+
+    protected static TransactionDTO transaction(TransactionType type, String category, long amount, LocalDateTime date) {
+        TransactionDTO transaction = new TransactionDTO();
+        transaction.setType(type);
+        transaction.setCategory(category);
+        transaction.setAmount(amount);
+        transaction.setDate(date);
+        return transaction;
+    }
+}
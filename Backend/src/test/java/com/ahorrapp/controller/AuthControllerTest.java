@@ -0,0 +1,85 @@
+package com.ahorrapp.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.ahorrapp.DatabaseTest;
+import com.ahorrapp.model.User;
+import com.ahorrapp.service.RefreshTokenService;
+
+import jakarta.servlet.http.Cookie;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.ResultActions;
+
+class AuthControllerTest extends DatabaseTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Test
+    void refreshRotatesTheToken() throws Exception {
+        User user = newUser();
+        String token = refreshTokenService.issue(user.getId(), "test");
+
+        String rotated = refresh(token)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty())
+                .andReturn().getResponse().getCookie("refreshToken").getValue();
+
+        assertNotNull(rotated);
+        assertNotEquals(token, rotated);
+        refresh(rotated).andExpect(status().isOk());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheSession() throws Exception {
+        User user = newUser();
+        String token = refreshTokenService.issue(user.getId(), "test");
+        String rotated = refresh(token).andExpect(status().isOk())
+                .andReturn().getResponse().getCookie("refreshToken").getValue();
+
+        refresh(token).andExpect(status().isUnauthorized());
+
+        // El token vigente de la sesión tampoco sirve: la sesión se cerró
+        refresh(rotated).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void reuseDoesNotCloseOtherSessions() throws Exception {
+        User user = newUser();
+        String token = refreshTokenService.issue(user.getId(), "phone");
+        String otherDevice = refreshTokenService.issue(user.getId(), "tablet");
+        refresh(token).andExpect(status().isOk());
+
+        refresh(token).andExpect(status().isUnauthorized());
+
+        refresh(otherDevice).andExpect(status().isOk());
+    }
+
+    @Test
+    void logoutInvalidatesTheSession() throws Exception {
+        User user = newUser();
+        String token = refreshTokenService.issue(user.getId(), "test");
+
+        mockMvc.perform(post("/auth/logout").cookie(new Cookie("refreshToken", token)))
+                .andExpect(status().isOk())
+                .andExpect(cookie().maxAge("refreshToken", 0));
+
+        refresh(token).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void unknownTokenIsRejected() throws Exception {
+        refresh("not-a-token").andExpect(status().isUnauthorized());
+    }
+
+    private ResultActions refresh(String token) throws Exception {
+        return mockMvc.perform(post("/auth/refreshToken").cookie(new Cookie("refreshToken", token)));
+    }
+}
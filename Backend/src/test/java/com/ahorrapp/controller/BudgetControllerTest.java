@@ -0,0 +1,54 @@
+package com.ahorrapp.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.ahorrapp.DatabaseTest;
+import com.ahorrapp.model.User;
+import com.ahorrapp.service.CategoryService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+class BudgetControllerTest extends DatabaseTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void rejectedBudgetDoesNotLeaveItsCategory() throws Exception {
+        User user = newUser();
+
+        save(user, "{\"category\": \"travel\", \"limitAmount\": 100, \"currency\": \"ZZZ\"}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown currency ZZZ"));
+        save(user, "{\"id\": " + Long.MAX_VALUE + ", \"category\": \"gifts\", \"limitAmount\": 100}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Budget not found"));
+
+        assertEquals(List.of(), categoryService.getCategories(user.getId()));
+    }
+
+    @Test
+    void savedBudgetKeepsItsCategory() throws Exception {
+        User user = newUser();
+
+        save(user, "{\"category\": \"travel\", \"limitAmount\": 100}").andExpect(status().isOk());
+
+        assertEquals(List.of("travel"), categoryService.getCategories(user.getId()));
+    }
+
+    private ResultActions save(User user, String body) throws Exception {
+        return mockMvc.perform(post("/budgets/save")
+                .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
@@ -0,0 +1,173 @@
+package com.ahorrapp.controller;
+
+import com.ahorrapp.DatabaseTest;
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+import com.ahorrapp.repository.TransactionRepository;
+import com.ahorrapp.service.CategoryService;
+import com.ahorrapp.service.TransactionService;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TransactionChangesTest extends DatabaseTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void fullResyncIsPagedWithoutDuplicatesOrGaps() throws Exception {
+        User user = newUser();
+        List<TransactionDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            rows.add(transaction(TransactionType.EXPENSE, "food", 100 + i, DATE.plusMinutes(i % 7)));
+        }
+        Set<Long> imported = ids(transactionService.importTransactions(rows, user.getId()));
+
+        JsonNode first = changes(user, null);
+        assertTrue(first.get("fullResync").asBoolean());
+        assertTrue(first.get("hasMore").asBoolean());
+        List<Long> received = new ArrayList<>(transactionIds(first));
+        JsonNode page = first;
+        int pages = 1;
+        while (page.get("hasMore").asBoolean()) {
+            page = changes(user, page.get("syncToken").asText());
+            assertFalse(page.get("fullResync").asBoolean());
+            received.addAll(transactionIds(page));
+            pages++;
+        }
+        assertEquals(3, pages);
+        assertEquals(imported.size(), received.size());
+        assertEquals(imported, new HashSet<>(received));
+
+        // Sin cambios, la sincronización siguiente no trae nada
+        JsonNode idle = changes(user, page.get("syncToken").asText());
+        assertEquals(0, idle.get("transactions").size());
+        assertEquals(0, idle.get("deleted").size());
+        assertFalse(idle.get("hasMore").asBoolean());
+    }
+
+    @Test
+    void deletionsAndUpdatesArriveAsChanges() throws Exception {
+        User user = newUser();
+        Transaction kept = transactionService.createTransaction(transaction(TransactionType.EXPENSE, "food", 1_00, DATE), user);
+        Transaction removed = transactionService.createTransaction(transaction(TransactionType.EXPENSE, "food", 2_00, DATE), user);
+        String token = changes(user, null).get("syncToken").asText();
+
+        transactionService.deleteTransaction(removed.getId(), user);
+        categoryService.changeCategories(user.getId(), "meals", List.of("food"));
+
+        JsonNode changes = changes(user, token);
+        assertFalse(changes.get("fullResync").asBoolean());
+        assertEquals(List.of(removed.getId()), longs(changes.get("deleted")));
+        assertEquals(List.of(kept.getId()), transactionIds(changes));
+        assertEquals("meals", changes.get("transactions").get(0).get("category").asText());
+
+        JsonNode next = changes(user, changes.get("syncToken").asText());
+        assertEquals(0, next.get("deleted").size());
+        assertEquals(0, next.get("transactions").size());
+    }
+
+    // Una transacción de la base que escribió antes del token y confirma después entra en la sincronización siguiente
+    @Test
+    void lateCommitIsNotSkipped() throws Exception {
+        User user = newUser();
+        String token = changes(user, null).get("syncToken").asText();
+
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        CompletableFuture<Transaction> late = CompletableFuture.supplyAsync(() -> template.execute(status -> {
+            Transaction transaction = transactionService.createTransaction(
+                    transaction(TransactionType.INCOME, "salary", 500_00, DATE), user);
+            transactionRepository.flush();
+            written.countDown();
+            try {
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return transaction;
+        }));
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+
+        JsonNode whileOpen = changes(user, token);
+        assertEquals(0, whileOpen.get("transactions").size());
+        release.countDown();
+        Long lateId = late.get(10, TimeUnit.SECONDS).getId();
+
+        JsonNode afterCommit = changes(user, whileOpen.get("syncToken").asText());
+        assertEquals(List.of(lateId), transactionIds(afterCommit));
+    }
+
+    @Test
+    void malformedTokenIsRejected() throws Exception {
+        User user = newUser();
+        mockMvc.perform(get("/transactions/changes").param("since", "not-a-token")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode changes(User user, String since) throws Exception {
+        String body = mockMvc.perform(get("/transactions/changes").param("since", since == null ? "" : since)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<Long> transactionIds(JsonNode changes) {
+        List<Long> ids = new ArrayList<>();
+        changes.get("transactions").forEach(transaction -> ids.add(transaction.get("id").asLong()));
+        return ids;
+    }
+
+    private static List<Long> longs(JsonNode array) {
+        List<Long> values = new ArrayList<>();
+        array.forEach(value -> values.add(value.asLong()));
+        return values;
+    }
+
+    private static Set<Long> ids(List<Transaction> transactions) {
+        Set<Long> ids = new HashSet<>();
+        transactions.forEach(transaction -> ids.add(transaction.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ahorrapp.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.ahorrapp.DatabaseTest;
+import com.ahorrapp.model.User;
+import com.ahorrapp.repository.TransactionRollupRepository;
+import com.ahorrapp.service.TransactionService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+class TransactionImportTest extends DatabaseTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRollupRepository rollupRepository;
+
+    @Test
+    void csvReportsTheNumberOfEachBadRow() throws Exception {
+        User user = newUser();
+        String csv = """
+                type,category,amount,date
+                EXPENSE,food,12.50,2025-03-01 10:00
+                EXPENSE,food,twelve,2025-03-02 10:00
+                INCOME,salary,1000,2025-03-03 10:00
+                EXPENSE,,5,2025-03-04 10:00
+                """;
+
+        bulk(user, "text/csv", csv)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.rows[1].row").value(2))
+                .andExpect(jsonPath("$.rows[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.rows[3].row").value(4))
+                .andExpect(jsonPath("$.rows[3].status").value("FAILED"))
+                .andExpect(jsonPath("$.rows[3].errors.category").exists())
+                .andExpect(jsonPath("$.rows[0].status").value("IMPORTED"))
+                .andExpect(jsonPath("$.rows[2].status").value("IMPORTED"));
+
+        assertEquals(2, transactionService.getTransactionsByUserId(user.getId()).size());
+    }
+
+    // Una fila que pasa la validación pero falla en la base revierte el lote entero, totales incluidos
+    @Test
+    void batchThatFailsToSaveLeavesNothingBehind() throws Exception {
+        User user = newUser();
+        String json = """
+                [
+                  {"type": "EXPENSE", "category": "food", "amount": 10, "date": "2025-03-01 10:00"},
+                  {"type": "EXPENSE", "category": "food", "amount": 20, "date": "2025-03-02 10:00",
+                   "description": "%s"},
+                  {"type": "INCOME", "category": "salary", "amount": 30, "date": "2025-03-03 10:00"}
+                ]
+                """.formatted("x".repeat(300));
+
+        bulk(user, MediaType.APPLICATION_JSON_VALUE, json)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.rows[0].status").value("FAILED"))
+                .andExpect(jsonPath("$.rows[2].status").value("FAILED"));
+
+        assertEquals(0, transactionService.getTransactionsByUserId(user.getId()).size());
+        assertEquals(0, rollupRepository.findTotalsByUserId(user.getId()).stream()
+                .filter(total -> total.getCount() > 0).count());
+    }
+
+    @Test
+    void malformedBodyIsRejected() throws Exception {
+        User user = newUser();
+        bulk(user, MediaType.APPLICATION_JSON_VALUE, "{\"type\": \"EXPENSE\"}")
+                .andExpect(status().isBadRequest());
+        bulk(user, "text/csv", "").andExpect(status().isBadRequest());
+    }
+
+    private ResultActions bulk(User user, String contentType, String body) throws Exception {
+        return mockMvc.perform(post("/transactions/bulk")
+                .header(HttpHeaders.AUTHORIZATION, bearer(user))
+                .contentType(contentType)
+                .content(body));
+    }
+}
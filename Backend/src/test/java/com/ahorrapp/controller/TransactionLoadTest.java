@@ -0,0 +1,154 @@
+package com.ahorrapp.controller;
+
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+import com.ahorrapp.repository.UserRepository;
+import com.ahorrapp.service.TransactionService;
+import com.ahorrapp.util.JwtUtil;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Carga concurrente sobre /transactions/page contra un Postgres real (Testcontainers).
+ * No corre en el build normal; para comparar los dos modos se ejecuta una vez con cada uno:
+ *
+ * mvn test -Dtest=TransactionLoadTest -Dloadtest=true -Dloadtest.virtual=false
+ * mvn test -Dtest=TransactionLoadTest -Dloadtest=true -Dloadtest.virtual=true
+ *
+ * Opcionales: loadtest.concurrency (400), loadtest.requests (20000), loadtest.pool (10).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class TransactionLoadTest {
+
+    private static final int TRANSACTIONS = 1_000;
+    private static final int WARMUP_REQUESTS = 1_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("JWT_SECRET_KEY", () -> "load-test-secret-key-with-at-least-256-bits-0123456789");
+        registry.add("spring.threads.virtual.enabled", () -> System.getProperty("loadtest.virtual", "false"));
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> System.getProperty("loadtest.pool", "10"));
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void pagedReadsUnderConcurrency() throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 400);
+        int requests = Integer.getInteger("loadtest.requests", 20_000);
+
+        User user = new User();
+        user.setName("Load");
+        user.setLastname("Test");
+        user.setEmail("load-test@ahorrapp.com");
+        user.setPassword("unused");
+        user = userRepository.save(user);
+
+        List<TransactionDTO> transactions = new ArrayList<>();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            TransactionDTO transaction = new TransactionDTO();
+            transaction.setType(i % 5 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            transaction.setCategory("category-" + (i % 12));
+            transaction.setAmount(1_000 + i * 100L);
+            transaction.setDate(LocalDateTime.of(2024, 1, 1, 12, 0).plusHours(i));
+            transactions.add(transaction);
+        }
+        transactionService.importTransactions(transactions, user.getId());
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/transactions/page?limit=50"))
+                .header("Authorization", "Bearer " + jwtUtil.generateAccessToken(user.getId(), user.getEmail()))
+                .build();
+
+        run(client, request, Math.min(concurrency, 50), WARMUP_REQUESTS);
+        long start = System.nanoTime();
+        Result result = run(client, request, concurrency, requests);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] latencies = result.latencies();
+        Arrays.sort(latencies);
+        System.out.printf("%s threads, concurrency %d, pool %s: %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                Boolean.getBoolean("loadtest.virtual") ? "virtual" : "platform", concurrency,
+                System.getProperty("loadtest.pool", "10"), requests / seconds, percentile(latencies, 0.50),
+                percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+        assertEquals(0, result.errors());
+    }
+
+    private record Result(long[] latencies, int errors) {
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, int requests)
+            throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[i] = System.nanoTime() - start;
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(10, TimeUnit.MINUTES);
+        }
+        return new Result(latencies, errors.get());
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        return sortedLatencies[(int) Math.ceil(percentile * sortedLatencies.length) - 1] / 1e6;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ahorrapp.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.ahorrapp.DatabaseTest;
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+import com.ahorrapp.service.TransactionService;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+class TransactionPageTest extends DatabaseTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 2, 14, 9, 30);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Con páginas de 2, los cortes caen dentro del grupo de 5 transacciones con la misma fecha
+    @Test
+    void tiesOnDateAcrossPagesHaveNoDuplicatesOrGaps() throws Exception {
+        User user = newUser();
+        List<TransactionDTO> rows = new ArrayList<>();
+        rows.add(transaction(TransactionType.EXPENSE, "food", 1_00, DATE.plusDays(1)));
+        for (int i = 0; i < 5; i++) {
+            rows.add(transaction(TransactionType.EXPENSE, "food", 2_00 + i, DATE));
+        }
+        rows.add(transaction(TransactionType.EXPENSE, "food", 3_00, DATE.minusDays(1)));
+        List<Long> expected = transactionService.importTransactions(rows, user.getId()).stream()
+                .sorted(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId).reversed())
+                .map(Transaction::getId)
+                .toList();
+
+        List<Long> received = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = page(user, cursor);
+            page.get("transactions").forEach(transaction -> received.add(transaction.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, received);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        User user = newUser();
+        for (String cursor : List.of("%%%", encode("2025-02-14T09:30"), encode("2025-02-14T09:30|abc"),
+                encode("yesterday|12"))) {
+            mockMvc.perform(get("/transactions/page").param("cursor", cursor)
+                            .header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid cursor"));
+        }
+    }
+
+    private JsonNode page(User user, String cursor) throws Exception {
+        String body = mockMvc.perform(get("/transactions/page").param("limit", "2")
+                        .param("cursor", cursor == null ? "" : cursor)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
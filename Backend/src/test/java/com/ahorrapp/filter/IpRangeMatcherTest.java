@@ -0,0 +1,77 @@
+package com.ahorrapp.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class IpRangeMatcherTest {
+
+    private final IpRangeMatcher matcher = IpRangeMatcher.compile(List.of(
+            "181.0.0.0/8", "186.0.0.0/8", "192.168.0.0/16", "127.0.0.0/8",
+            "2001:db8::/32", "::1/128", "fe80::/10"));
+
+    @Test
+    void matchesIpv4Ranges() {
+        assertTrue(matcher.matches("181.45.2.10"));
+        assertTrue(matcher.matches("192.168.255.255"));
+        assertTrue(matcher.matches("127.0.0.1"));
+        assertFalse(matcher.matches("192.169.0.1"));
+        assertFalse(matcher.matches("8.8.8.8"));
+    }
+
+    @Test
+    void matchesIpv6Ranges() {
+        assertTrue(matcher.matches("2001:db8::1"));
+        assertTrue(matcher.matches("2001:0db8:ffff:ffff:ffff:ffff:ffff:ffff"));
+        assertTrue(matcher.matches("::1"));
+        assertTrue(matcher.matches("[::1]"));
+        assertTrue(matcher.matches("fe80::1%eth0"));
+        assertFalse(matcher.matches("2001:db9::1"));
+        assertFalse(matcher.matches("::2"));
+    }
+
+    @Test
+    void treatsIpv4MappedAddressesAsIpv4() {
+        assertTrue(matcher.matches("::ffff:192.168.1.20"));
+        assertTrue(matcher.matches("::ffff:c0a8:0114"));
+        assertFalse(matcher.matches("::ffff:8.8.8.8"));
+        assertTrue(IpRangeMatcher.compile(List.of("::ffff:10.0.0.0/104")).matches("10.1.2.3"));
+    }
+
+    @Test
+    void rejectsMalformedAddresses() {
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches("unknown"));
+        assertFalse(matcher.matches("192.168.1"));
+        assertFalse(matcher.matches("192.168.1.256"));
+        assertFalse(matcher.matches("2001:db8:::1"));
+        assertFalse(matcher.matches("2001:db8::1::2"));
+        assertFalse(matcher.matches("1:2:3:4:5:6:7:8:9"));
+        assertFalse(matcher.matches("2001:db8:"));
+    }
+
+    @Test
+    void matchesFirstEntryOfForwardedHeaderWithoutCopying() {
+        String header = " 186.10.0.1 , 8.8.8.8";
+        assertTrue(matcher.matches(header, 0, header.indexOf(',')));
+    }
+
+    @Test
+    void mergesOverlappingRanges() {
+        IpRangeMatcher merged = IpRangeMatcher.compile(List.of("10.0.0.0/8", "10.1.0.0/16", "0.0.0.0/0"));
+        assertEquals(1, merged.size());
+        assertTrue(merged.matches("203.0.113.9"));
+        assertFalse(merged.matches("2001:db8::1"));
+    }
+
+    @Test
+    void rejectsInvalidRanges() {
+        assertThrows(IllegalArgumentException.class, () -> IpRangeMatcher.compile(List.of("10.0.0.0/33")));
+        assertThrows(IllegalArgumentException.class, () -> IpRangeMatcher.compile(List.of("not-an-ip/8")));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ahorrapp.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import com.ahorrapp.dto.TransactionDTO;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void sumOfAMillionAmountsIsExactInCents() {
+        double doubleSum = 0;
+        long centsSum = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            doubleSum += 0.10;
+            centsSum = Math.addExact(centsSum, Money.toCents(new BigDecimal("0.10")));
+        }
+        assertNotEquals(100_000.0, doubleSum);
+        assertEquals(new BigDecimal("100000.00"), Money.toDecimal(centsSum));
+    }
+
+    @Test
+    void parsesAndFormatsExactly() {
+        assertEquals(1234, Money.toCents(new BigDecimal("12.34")));
+        assertEquals(1230, Money.toCents(new BigDecimal("12.3")));
+        assertEquals("12.34", Money.format(1234));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("0.00", Money.format(0));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void doesNotMixCurrencies() {
+        Money pesos = new Money(1000, null);
+        assertEquals(Money.DEFAULT_CURRENCY, pesos.currency());
+        assertEquals(new Money(1500, "ARS"), pesos.plus(new Money(500, "ars")));
+        assertThrows(IllegalArgumentException.class, () -> pesos.plus(new Money(500, "USD")));
+        assertThrows(IllegalArgumentException.class, () -> Money.currency("ZZZ"));
+    }
+
+    @Test
+    void amountsTravelAsDecimalsInJson() throws Exception {
+        TransactionDTO transaction = objectMapper.readValue("{\"amount\": 0.1, \"currency\": \"USD\"}", TransactionDTO.class);
+        assertEquals(10, transaction.getAmount());
+        assertEquals(1999, objectMapper.readValue("{\"amount\": \"19.99\"}", TransactionDTO.class).getAmount());
+        assertEquals(2000, objectMapper.readValue("{\"amount\": 20}", TransactionDTO.class).getAmount());
+        assertTrue(objectMapper.writeValueAsString(transaction).contains("\"amount\":0.10"));
+        assertThrows(JsonMappingException.class,
+                () -> objectMapper.readValue("{\"amount\": 0.105}", TransactionDTO.class));
+    }
+}
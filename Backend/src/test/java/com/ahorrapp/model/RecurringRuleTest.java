@@ -0,0 +1,47 @@
+package com.ahorrapp.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class RecurringRuleTest {
+
+    private static RecurringRule monthlyRule(LocalDateTime start, LocalDateTime end) {
+        RecurringRule rule = new RecurringRule();
+        rule.setFrequency(RecurrenceFrequency.MONTHLY);
+        rule.setStartDate(start);
+        rule.setEndDate(end);
+        rule.skipUntil(start);
+        return rule;
+    }
+
+    @Test
+    void monthEndDoesNotDrift() {
+        RecurringRule rule = monthlyRule(LocalDateTime.of(2025, 1, 31, 9, 0), null);
+        assertEquals(LocalDateTime.of(2025, 1, 31, 9, 0), rule.getNextRun());
+        rule.advance();
+        assertEquals(LocalDateTime.of(2025, 2, 28, 9, 0), rule.getNextRun());
+        rule.advance();
+        assertEquals(LocalDateTime.of(2025, 3, 31, 9, 0), rule.getNextRun());
+    }
+
+    @Test
+    void stopsAfterEndDate() {
+        RecurringRule rule = monthlyRule(LocalDateTime.of(2025, 1, 10, 0, 0), LocalDateTime.of(2025, 2, 10, 0, 0));
+        rule.advance();
+        assertEquals(LocalDateTime.of(2025, 2, 10, 0, 0), rule.getNextRun());
+        rule.advance();
+        assertNull(rule.getNextRun());
+    }
+
+    @Test
+    void skipUntilSkipsPastOccurrences() {
+        RecurringRule rule = monthlyRule(LocalDateTime.of(2025, 1, 5, 0, 0), null);
+        rule.skipUntil(LocalDateTime.of(2025, 4, 1, 0, 0));
+        assertEquals(LocalDateTime.of(2025, 4, 5, 0, 0), rule.getNextRun());
+        assertEquals(3, rule.getOccurrences());
+    }
+}
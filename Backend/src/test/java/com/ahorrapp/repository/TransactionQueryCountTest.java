@@ -0,0 +1,112 @@
+package com.ahorrapp.repository;
+
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+import com.ahorrapp.service.TransactionService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cada listado de transacciones debe resolverse con una sola sentencia SQL (/changes con dos), tenga el
+ * usuario 1 o 500 transacciones, y sin hidratar entidades (ni Transaction ni su User). Usa Postgres real
+ * (Testcontainers).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionQueryCountTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("JWT_SECRET_KEY", () -> "query-count-secret-key-with-at-least-256-bits-0123456789");
+    }
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listsUseOneStatementRegardlessOfRowCount() {
+        for (int rows : new int[] { 1, 500 }) {
+            Long userId = userWithTransactions(rows);
+
+            assertSingleStatement(() -> assertEquals(rows, transactionService.getTransactionsByUserId(userId).size()));
+            assertSingleStatement(() -> assertEquals(Math.min(rows, 50),
+                    transactionService.getTransactionsPage(userId, null, null, null, 50).size()));
+            // Además de la página, /changes lee el horizonte del snapshot
+            assertStatements(2, () -> assertEquals(rows,
+                    ((List<?>) transactionService.getChangesSince(userId, null).get("transactions")).size()));
+            AtomicInteger streamed = new AtomicInteger();
+            assertSingleStatement(() -> transactionService.streamTransactionsByUserId(userId, transaction -> streamed.incrementAndGet()));
+            assertEquals(rows, streamed.get());
+        }
+    }
+
+    private void assertSingleStatement(Runnable listing) {
+        assertStatements(1, listing);
+    }
+
+    private void assertStatements(int statements, Runnable listing) {
+        statistics.clear();
+        listing.run();
+        assertEquals(statements, statistics.getPrepareStatementCount(), "SQL statements");
+        assertEquals(0, statistics.getEntityLoadCount(), "entities loaded");
+    }
+
+    private Long userWithTransactions(int rows) {
+        User user = new User();
+        user.setName("Query");
+        user.setLastname("Count");
+        user.setEmail("query-count-" + rows + "@ahorrapp.com");
+        user.setPassword("unused");
+        user = userRepository.save(user);
+
+        List<TransactionDTO> transactions = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            TransactionDTO transaction = new TransactionDTO();
+            transaction.setType(i % 5 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            transaction.setCategory("category-" + (i % 12));
+            transaction.setAmount(1_000 + i * 100L);
+            transaction.setDate(LocalDate.of(2024, 1, 1).atStartOfDay().plusHours(i));
+            transactions.add(transaction);
+        }
+        transactionService.importTransactions(transactions, user.getId());
+        return user.getId();
+    }
+}
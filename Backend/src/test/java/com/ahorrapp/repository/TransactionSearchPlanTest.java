@@ -0,0 +1,96 @@
+package com.ahorrapp.repository;
+
+import com.ahorrapp.DatabaseTest;
+import com.ahorrapp.RecordingStatementInspector;
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.dto.TransactionSearchDTO;
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+import com.ahorrapp.service.TransactionService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * La búsqueda por texto tiene que poder usar el índice GIN de la descripción aunque también busque por
+ * nombre de categoría. Se pide el plan (EXPLAIN EXECUTE) de la misma sentencia que genera
+ * Hibernate, con los recorridos secuenciales desactivados para que el tamaño de la tabla no decida.
+ */
+class TransactionSearchPlanTest extends DatabaseTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void textSearchUsesDescriptionIndex() {
+        User user = newUser();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<TransactionDTO> transactions = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            TransactionDTO transaction = transaction(TransactionType.EXPENSE, i % 100 == 0 ? "Supermercado" : "Varios",
+                    1_000 + i, start.plusHours(i));
+            transaction.setDescription(i % 250 == 0 ? "compra en el supermercado" : "gasto " + i);
+            transactions.add(transaction);
+        }
+        transactionService.importTransactions(transactions, user.getId());
+        jdbcTemplate.execute("ANALYZE transactions");
+
+        TransactionSearchDTO search = new TransactionSearchDTO();
+        search.setQ("supermercado");
+        RecordingStatementInspector.clear();
+        List<Transaction> found = transactionService.searchTransactions(user.getId(), search, null, 50);
+        // 20 por categoría y 8 por descripción, 4 de ellas con las dos
+        assertEquals(24, found.size());
+
+        String sql = RecordingStatementInspector.statements().stream()
+                .filter(statement -> statement.contains("to_tsvector"))
+                .findFirst().orElseThrow();
+        Long categoryId = categoryRepository.findByUserIdAndName(user.getId(), "Supermercado").orElseThrow().getId();
+        // Parámetros en el orden de la sentencia: usuario, rango de fechas, texto, categorías y límite
+        String plan = explain(sql, user.getId(), "'1900-01-01'", "'9999-12-31'", "'supermercado'", categoryId, 50);
+        assertTrue(plan.contains("idx_transactions_description_fts"), plan);
+    }
+
+    private String explain(String sql, Object... arguments) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        assertEquals(arguments.length, parameter, sql);
+        return template.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            jdbcTemplate.execute("PREPARE search_plan AS " + numbered);
+            try {
+                return String.join("\n",
+                        jdbcTemplate.queryForList("EXPLAIN EXECUTE search_plan("
+                        + Arrays.stream(arguments).map(String::valueOf).collect(Collectors.joining(", ")) + ")", String.class));
+            } finally {
+                jdbcTemplate.execute("DEALLOCATE search_plan");
+            }
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package com.ahorrapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ahorrapp.DatabaseTest;
+import com.ahorrapp.dto.RollupTotalDTO;
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.model.Category;
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+import com.ahorrapp.repository.CategoryRepository;
+import com.ahorrapp.repository.TransactionRollupRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class CategoryServiceTest extends DatabaseTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionRollupRepository rollupRepository;
+
+    @Test
+    void renamingASingleCategoryKeepsItsId() {
+        User user = newUser();
+        transactionService.createTransaction(transaction(TransactionType.EXPENSE, "food", 10_00, DATE), user);
+        Long id = categoryRepository.findByUserIdAndName(user.getId(), "food").orElseThrow().getId();
+
+        categoryService.changeCategories(user.getId(), "meals", List.of("food"));
+
+        assertEquals(List.of("meals"), categoryService.getCategories(user.getId()));
+        assertEquals(id, categoryRepository.findByUserIdAndName(user.getId(), "meals").orElseThrow().getId());
+        assertEquals(List.of("meals"), categoriesOfTransactions(user));
+    }
+
+    @Test
+    void mergingMovesTransactionsAndCombinesTotals() {
+        User user = newUser();
+        transactionService.createTransaction(transaction(TransactionType.EXPENSE, "food", 10_00, DATE), user);
+        transactionService.createTransaction(transaction(TransactionType.EXPENSE, "groceries", 5_50, DATE), user);
+        transactionService.createTransaction(transaction(TransactionType.EXPENSE, "meals", 2_25, DATE), user);
+        rollupRepository.findTotalsByUserId(user.getId());
+
+        categoryService.changeCategories(user.getId(), "meals", List.of("food", "groceries"));
+
+        assertEquals(List.of("meals"), categoryService.getCategories(user.getId()));
+        assertEquals(List.of("meals", "meals", "meals"), categoriesOfTransactions(user));
+        List<RollupTotalDTO> rollups = rollupRepository.findTotalsByUserId(user.getId());
+        assertEquals(1, rollups.size());
+        assertEquals("meals", rollups.get(0).getCategory());
+        assertEquals(17_75, rollups.get(0).getTotal());
+        assertEquals(3, rollups.get(0).getCount());
+    }
+
+    @Test
+    void changingCategoriesThatDoNotExistCreatesNothing() {
+        User user = newUser();
+        transactionService.createTransaction(transaction(TransactionType.EXPENSE, "food", 10_00, DATE), user);
+
+        categoryService.changeCategories(user.getId(), "ghost", List.of("missing", "unknown"));
+
+        assertEquals(List.of("food"), categoryService.getCategories(user.getId()));
+    }
+
+    @Test
+    void deleteIfUnusedOnlyDeletesUnreferencedCategories() {
+        User user = newUser();
+        Transaction transaction = transactionService.createTransaction(
+                transaction(TransactionType.EXPENSE, "food", 10_00, DATE), user);
+        Category used = categoryRepository.findByUserIdAndName(user.getId(), "food").orElseThrow();
+        Category unused = categoryService.resolve(user.getId(), "travel");
+
+        categoryService.deleteIfUnused(used);
+        categoryService.deleteIfUnused(unused);
+
+        assertTrue(categoryRepository.existsById(used.getId()));
+        assertTrue(categoryRepository.findById(unused.getId()).isEmpty());
+        assertEquals(List.of("food"), categoryService.getCategories(user.getId()));
+
+        // Al borrar su última transacción, la categoría se elimina en la misma transacción
+        transactionService.deleteTransaction(transaction.getId(), user);
+        assertTrue(categoryRepository.findById(used.getId()).isEmpty());
+    }
+
+    private List<String> categoriesOfTransactions(User user) {
+        return transactionService.getTransactionsByUserId(user.getId()).stream()
+                .map(TransactionDTO::getCategory)
+                .toList();
+    }
+}
@@ -0,0 +1,77 @@
+package com.ahorrapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.ahorrapp.DatabaseTest;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+class DataVersionServiceTest extends DatabaseTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 4, 1, 8, 0);
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void versionIsStoredWithTheUser() {
+        User user = newUser();
+        String initial = dataVersionService.etag(user.getId());
+
+        transactionService.createTransaction(transaction(TransactionType.EXPENSE, "food", 1_00, DATE), user);
+
+        String afterWrite = dataVersionService.etag(user.getId());
+        assertNotEquals(initial, afterWrite);
+        // Otra instancia lee la misma columna, así que calcula el mismo ETag
+        assertEquals("\"v" + jdbcTemplate.queryForObject("SELECT data_version FROM users WHERE id = ?", Long.class,
+                user.getId()) + "\"", afterWrite);
+    }
+
+    @Test
+    void rolledBackWriteKeepsTheVersion() {
+        User user = newUser();
+        String initial = dataVersionService.etag(user.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            transactionService.createTransaction(transaction(TransactionType.EXPENSE, "food", 1_00, DATE), user);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(initial, dataVersionService.etag(user.getId()));
+    }
+
+    @Test
+    void unchangedDataIsNotModified() throws Exception {
+        User user = newUser();
+        transactionService.createTransaction(transaction(TransactionType.EXPENSE, "food", 1_00, DATE), user);
+        String etag = mockMvc.perform(get("/transactions/mine").header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/transactions/mine").header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        transactionService.createTransaction(transaction(TransactionType.INCOME, "salary", 5_00, DATE), user);
+        mockMvc.perform(get("/transactions/mine").header(HttpHeaders.AUTHORIZATION, bearer(user))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+}
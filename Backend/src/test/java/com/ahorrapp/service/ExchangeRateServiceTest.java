@@ -0,0 +1,78 @@
+package com.ahorrapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.ahorrapp.model.ExchangeRate;
+import com.ahorrapp.repository.ExchangeRateRepository;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ExchangeRateServiceTest {
+
+    private ExchangeRateService service;
+
+    private static ExchangeRate rate(String currency, String date, String rate) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setCurrency(currency);
+        exchangeRate.setDate(LocalDate.parse(date));
+        exchangeRate.setRate(new BigDecimal(rate));
+        return exchangeRate;
+    }
+
+    @BeforeEach
+    void loadRates() {
+        ExchangeRateRepository repository = mock(ExchangeRateRepository.class);
+        when(repository.findAll()).thenReturn(List.of(
+                rate("USD", "2025-01-01", "1000"),
+                rate("USD", "2025-02-01", "1100"),
+                rate("EUR", "2025-01-01", "1050")));
+        service = new ExchangeRateService("");
+        ReflectionTestUtils.setField(service, "exchangeRateRepository", repository);
+        service.reload();
+    }
+
+    @Test
+    void usesTheLastRateOnOrBeforeTheDate() {
+        assertEquals(1_000_00, service.convert(1_00, "USD", "ARS", LocalDate.of(2025, 1, 31)));
+        assertEquals(1_100_00, service.convert(1_00, "USD", "ARS", LocalDate.of(2025, 2, 1)));
+        assertEquals(1_100_00, service.convert(1_00, "USD", "ARS", LocalDate.of(2030, 1, 1)));
+    }
+
+    @Test
+    void convertsBetweenForeignCurrenciesThroughTheReference() {
+        // 100 EUR = 105.000 ARS = 95.45 USD con la cotización de febrero
+        assertEquals(95_45, service.convert(100_00, "EUR", "USD", LocalDate.of(2025, 2, 15)));
+        assertEquals(new BigDecimal("0.00090909"), service.rate("ARS", "USD", LocalDate.of(2025, 2, 15)));
+    }
+
+    @Test
+    void failsWithoutARate() {
+        assertFalse(service.canConvert("USD", "ARS", LocalDate.of(2024, 12, 31)));
+        assertTrue(service.canConvert("ARS", "ARS", LocalDate.of(2024, 12, 31)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.convert(1_00, "USD", "ARS", LocalDate.of(2024, 12, 31)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.convert(1_00, "BRL", "ARS", LocalDate.of(2025, 1, 1)));
+    }
+
+    @Test
+    void rejectsInvalidImportRowsBeforeWriting() {
+        String csv = "date,currency,rate\n2025-03-01,USD,1200\n2025-03-02,USD,-1\n";
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(error.getMessage().startsWith("Line 3"));
+    }
+}
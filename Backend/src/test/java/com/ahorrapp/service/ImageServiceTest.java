@@ -0,0 +1,190 @@
+package com.ahorrapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ahorrapp.DatabaseTest;
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+import com.ahorrapp.repository.ImageBlobRepository;
+import com.ahorrapp.repository.TransactionRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuenta de referencias de image_blobs: cada columna que apunta a un hash suma una referencia y el GC solo
+ * toma los blobs sin referencias, sin pisar un registro concurrente del mismo contenido.
+ */
+class ImageServiceTest extends DatabaseTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ImageBlobRepository blobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void sharedBlobSurvivesUntilTheLastReferenceIsDeleted() {
+        User user = newUser();
+        // No es una imagen que ImageIO pueda leer: el procesamiento la conserva tal cual
+        String image = base64(("receipt " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+        Transaction first = transactionService.createTransaction(withImage(image), user);
+        Transaction second = transactionService.createTransaction(withImage(image), user);
+        String hash = first.getImageHash();
+        assertEquals(hash, second.getImageHash());
+
+        transactionService.deleteTransaction(first.getId(), user);
+        assertTrue(refCount(hash) > 0);
+        assertFalse(collectable(hash));
+
+        transactionService.deleteTransaction(second.getId(), user);
+        assertEquals(0, refCount(hash));
+        assertTrue(collectable(hash));
+    }
+
+    @Test
+    void garbageCollectorDoesNotDeleteABlobRegisteredConcurrently() throws Exception {
+        byte[] bytes = ("orphan " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        String hash = ImageService.sha256(bytes);
+        blobRepository.register(hash, bytes.length, LocalDateTime.now().minusDays(1));
+        imageStore.put(hash, bytes);
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        CompletableFuture<Void> registered = new CompletableFuture<>();
+        template.executeWithoutResult(status -> {
+            // Mismos pasos que collectBatch; mientras tanto otra transacción vuelve a subir el mismo contenido
+            List<String> claimed = blobRepository.claimOrphaned(LocalDateTime.now(), 1_000);
+            assertTrue(claimed.contains(hash));
+            CompletableFuture.runAsync(() -> template.executeWithoutResult(inner -> {
+                try {
+                    imageService.saveImage(bytes);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            })).whenComplete((result, error) -> {
+                if (error != null) {
+                    registered.completeExceptionally(error);
+                } else {
+                    registered.complete(null);
+                }
+            });
+            try {
+                imageStore.delete(hash);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            blobRepository.deleteByHashIn(List.of(hash));
+        });
+        registered.get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, refCount(hash));
+        assertArrayEquals(bytes, readImage(hash));
+        imageService.collectGarbage();
+        assertArrayEquals(bytes, readImage(hash));
+    }
+
+    @Test
+    void reuploadingTheSameOriginalKeepsTheProcessedImage() throws Exception {
+        User user = newUser();
+        String image = base64(noisyPng());
+        Transaction created = transactionService.createTransaction(withImage(image), user);
+        Transaction processed = awaitProcessed(created.getId());
+        assertNotEquals(processed.getUploadHash(), processed.getImageHash());
+        int references = refCount(processed.getImageHash());
+
+        TransactionDTO update = withImage(image);
+        update.setId(created.getId());
+        transactionService.updateTransaction(update, user);
+
+        Transaction updated = transactionRepository.findById(created.getId()).orElseThrow();
+        assertEquals(processed.getImageHash(), updated.getImageHash());
+        assertEquals(processed.getThumbnail(), updated.getThumbnail());
+        assertEquals(references, refCount(updated.getImageHash()));
+    }
+
+    private static TransactionDTO withImage(String image) {
+        TransactionDTO transaction = transaction(TransactionType.EXPENSE, "receipts", 1_000, DATE);
+        transaction.setImage(image);
+        return transaction;
+    }
+
+    private Transaction awaitProcessed(Long id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Transaction transaction = transactionRepository.findById(id).orElseThrow();
+            if (transaction.getThumbnail() != null) {
+                return transaction;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("The image of transaction " + id + " was not processed");
+    }
+
+    private int refCount(String hash) {
+        return jdbcTemplate.queryForObject("SELECT ref_count FROM image_blobs WHERE hash = ?", Integer.class, hash);
+    }
+
+    // Lo que tomaría el GC una vez vencido el período de gracia; se revierte para no bloquear la fila
+    private boolean collectable(String hash) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        return Boolean.TRUE.equals(template.execute(status -> {
+            status.setRollbackOnly();
+            return blobRepository.claimOrphaned(LocalDateTime.now().plusDays(1), 100_000).contains(hash);
+        }));
+    }
+
+    private byte[] readImage(String hash) throws Exception {
+        return imageService.readImage(hash);
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    // Ruido: el PNG pesa más que su versión JPEG, así que el procesamiento la reemplaza
+    private static byte[] noisyPng() throws Exception {
+        BufferedImage image = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ahorrapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.ahorrapp.DatabaseTest;
+import com.ahorrapp.dto.RecurringRuleDTO;
+import com.ahorrapp.model.RecurrenceFrequency;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class RecurringTransactionServiceTest extends DatabaseTest {
+
+    @Autowired
+    private RecurringTransactionService recurringTransactionService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void startDateOlderThanTheBackfillLimitIsRejected() {
+        User user = newUser();
+
+        assertThrows(IllegalArgumentException.class, () -> recurringTransactionService.createRule(
+                rule("rent", LocalDateTime.now().minusYears(30)), user.getId()));
+        assertEquals(List.of(), categoryService.getCategories(user.getId()));
+
+        recurringTransactionService.createRule(rule("rent", LocalDateTime.now().minusMonths(11)), user.getId());
+        assertEquals(1, recurringTransactionService.getRules(user.getId()).size());
+    }
+
+    private static RecurringRuleDTO rule(String category, LocalDateTime startDate) {
+        RecurringRuleDTO rule = new RecurringRuleDTO();
+        rule.setType(TransactionType.EXPENSE);
+        rule.setCategory(category);
+        rule.setAmount(1_000_00);
+        rule.setFrequency(RecurrenceFrequency.MONTHLY);
+        rule.setStartDate(startDate);
+        return rule;
+    }
+}
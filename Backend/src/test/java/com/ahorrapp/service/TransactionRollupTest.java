@@ -0,0 +1,76 @@
+package com.ahorrapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ahorrapp.DatabaseTest;
+import com.ahorrapp.dto.TransactionDTO;
+import com.ahorrapp.model.Transaction;
+import com.ahorrapp.model.TransactionType;
+import com.ahorrapp.model.User;
+import com.ahorrapp.repository.TransactionRollupRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Los buckets de transaction_rollups se mantienen incrementalmente en cada alta, edición y borrado; tienen
+ * que coincidir siempre con agregar las transacciones, también a través de la caché de findTotalsByUserId.
+ */
+class TransactionRollupTest extends DatabaseTest {
+
+    private static final LocalDateTime MARCH = LocalDateTime.of(2025, 3, 10, 12, 0);
+    private static final LocalDateTime APRIL = LocalDateTime.of(2025, 4, 2, 9, 30);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRollupRepository rollupRepository;
+
+    @Test
+    void rollupsMatchTheTransactionsAfterEveryChange() throws Exception {
+        User user = newUser();
+        Transaction groceries = transactionService.createTransaction(
+                transaction(TransactionType.EXPENSE, "food", 12_50, MARCH), user);
+        transactionService.createTransaction(transaction(TransactionType.EXPENSE, "food", 7_25, MARCH), user);
+        Transaction salary = transactionService.createTransaction(
+                transaction(TransactionType.INCOME, "salary", 1_000_00, MARCH), user);
+        assertRollupsMatch(user);
+
+        // Otra categoría, otro mes y otro monto en la misma edición
+        TransactionDTO update = transaction(TransactionType.EXPENSE, "rent", 300_00, APRIL);
+        update.setId(groceries.getId());
+        transactionService.updateTransaction(update, user);
+        assertRollupsMatch(user);
+
+        TransactionDTO currency = transaction(TransactionType.INCOME, "salary", 900_00, MARCH);
+        currency.setId(salary.getId());
+        currency.setCurrency("USD");
+        transactionService.updateTransaction(currency, user);
+        assertRollupsMatch(user);
+
+        transactionService.deleteTransaction(groceries.getId(), user);
+        assertRollupsMatch(user);
+    }
+
+    private void assertRollupsMatch(User user) {
+        Set<String> expected = Set.copyOf(jdbcTemplate.queryForList("""
+                SELECT to_char(t.date, 'YYYY-MM') || ' ' || c.name || ' ' || t.type || ' ' || t.currency
+                       || ' ' || SUM(t.amount_cents) || ' ' || COUNT(*)
+                FROM transactions t JOIN categories c ON c.id = t.category_id
+                WHERE t.user_id = ?
+                GROUP BY to_char(t.date, 'YYYY-MM'), c.name, t.type, t.currency
+                """, String.class, user.getId()));
+        // Un bucket que se vació puede quedar con cero transacciones
+        Set<String> rollups = rollupRepository.findTotalsByUserId(user.getId()).stream()
+                .filter(rollup -> rollup.getCount() > 0)
+                .map(rollup -> String.join(" ", rollup.getMonth(), rollup.getCategory(), rollup.getType().name(),
+                        rollup.getCurrency(), String.valueOf(rollup.getTotal()), String.valueOf(rollup.getCount())))
+                .collect(Collectors.toSet());
+        assertEquals(expected, rollups);
+    }
+}
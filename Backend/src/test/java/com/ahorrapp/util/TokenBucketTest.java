@@ -0,0 +1,44 @@
+package com.ahorrapp.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TokenBucket bucket = new TokenBucket(3, 6, now::get);
+
+    @Test
+    void allowsBurstUpToCapacity() {
+        assertTrue(bucket.tryConsume());
+        assertTrue(bucket.tryConsume());
+        assertTrue(bucket.tryConsume());
+        assertFalse(bucket.tryConsume());
+    }
+
+    @Test
+    void refillsOverTime() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryConsume();
+        }
+        assertEquals(10, bucket.secondsUntilAvailable());
+
+        now.addAndGet(10_000_000_000L);
+        assertTrue(bucket.tryConsume());
+        assertFalse(bucket.tryConsume());
+    }
+
+    @Test
+    void neverExceedsCapacity() {
+        now.addAndGet(3_600_000_000_000L);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(bucket.tryConsume());
+        }
+        assertFalse(bucket.tryConsume());
+    }
+}
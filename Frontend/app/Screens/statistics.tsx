@@ -1,19 +1,66 @@
-import React from 'react';
+import React, { useEffect, useState } from 'react';
 import { View, StyleSheet } from 'react-native';
 import GlobalText from '@/components/GlobalText';
 import { formatNumber } from '@/services/generalMethods';
+import transactionService from '@/services/transaction.service';
 import appStore from '@/store/app.store';
 
+type CurrencyTotals = { currency: string, income: number, expense: number, balance: number };
+
 export default function Statistics() {
-  const totalIncome = appStore.transactions
-    .filter((t) => t.type === 'INCOME')
-    .reduce((sum, t) => sum + t.amount, 0);
+  const [totalIncome, setTotalIncome] = useState(0);
+  const [totalExpenses, setTotalExpenses] = useState(0);
+  const [balance, setBalance] = useState(0);
+  const [conversionError, setConversionError] = useState<string | null>(null);
+  const [byCurrency, setByCurrency] = useState<CurrencyTotals[]>([]);
 
-  const totalExpenses = appStore.transactions
-    .filter((t) => t.type === 'EXPENSE')
-    .reduce((sum, t) => sum + t.amount, 0);
+  // Los totales se calculan y se convierten a pesos en el servidor; se vuelven a pedir cuando cambian las transacciones.
+  // Si falta una cotización el servidor responde 400: se muestra su mensaje y los totales de cada moneda sin convertir
+  useEffect(() => {
+    transactionService.getStatistics(undefined, undefined, 'ARS')
+      .then((statistics) => {
+        setTotalIncome(statistics.converted.totals.INCOME);
+        setTotalExpenses(statistics.converted.totals.EXPENSE);
+        setBalance(statistics.converted.balance);
+        setConversionError(null);
+      })
+      .catch(async (error) => {
+        if (error.response?.status !== 400) {
+          console.error('Error al obtener las estadísticas:', error);
+          return;
+        }
+        setConversionError(error.response.data?.message ?? 'No se pudieron convertir los montos a pesos');
+        try {
+          const statistics = await transactionService.getStatistics();
+          setByCurrency(Object.entries(statistics.totals as Record<string, Record<string, number>>)
+            .map(([currency, totals]) => ({
+              currency,
+              income: totals.INCOME ?? 0,
+              expense: totals.EXPENSE ?? 0,
+              balance: statistics.balance[currency] ?? 0,
+            })));
+        } catch (fallbackError) {
+          console.error('Error al obtener las estadísticas por moneda:', fallbackError);
+        }
+      });
+  }, [appStore.transactions]);
 
-  const balance = totalIncome - totalExpenses;
+  if (conversionError) {
+    return (
+      <View style={styles.container}>
+        <GlobalText style={styles.title}>Estadisticas</GlobalText>
+        <GlobalText style={styles.warning}>{conversionError}</GlobalText>
+        {byCurrency.map((totals) => (
+          <View key={totals.currency} style={styles.currency}>
+            <GlobalText style={styles.currencyTitle}>{totals.currency}</GlobalText>
+            <GlobalText style={styles.income}>Ingresos Totales: ${formatNumber(totals.income)}</GlobalText>
+            <GlobalText style={styles.expense}>Gastos Totales: ${formatNumber(totals.expense)}</GlobalText>
+            <GlobalText style={styles.balance}>Balance: ${formatNumber(totals.balance)}</GlobalText>
+          </View>
+        ))}
+      </View>
+    );
+  }
 
   return (
     <View style={styles.container}>
@@ -49,4 +96,16 @@ const styles = StyleSheet.create({
     fontWeight: 'bold',
     marginTop: 10,
   },
+  warning: {
+    fontSize: 16,
+    color: 'orange',
+    marginBottom: 10,
+  },
+  currency: {
+    marginBottom: 15,
+  },
+  currencyTitle: {
+    fontSize: 18,
+    fontWeight: 'bold',
+  },
 });
@@ -1,6 +1,6 @@
 
 import React, { useEffect } from 'react';
-import { Button, Keyboard, Modal, StyleSheet, TouchableWithoutFeedback, View, Image, Alert } from 'react-native';
+import { Button, Keyboard, Modal, StyleSheet, TouchableWithoutFeedback, View, Image, Alert, ImageURISource } from 'react-native';
 import GlobalText from './GlobalText';
 import { formatNumber, formatDate } from '@/services/generalMethods';
 import TransactionForm from './transactionForm';
@@ -20,6 +20,12 @@ interface TransactionProps {
 const TransactionComponent: React.FC<TransactionProps> = ({ item}) => {
     const [showModal, setShowModal] = React.useState(false);
     const [showImageModal, setShowImageModal] = React.useState(false);
+    const [imageSource, setImageSource] = React.useState<ImageURISource | null>(null);
+
+    const openImage = async () => {
+        setImageSource(await transactionService.getImageSource(item));
+        setShowImageModal(true);
+    };
 
     const handleDeleteTransaction = async (id: number) => {
         try {
@@ -98,15 +104,15 @@ const TransactionComponent: React.FC<TransactionProps> = ({ item}) => {
                     onPress={() => setShowModal(true)}
                     style={styles.icon}
                 />
-                {item.image && (
+                {item.imageEtag && (
                     <CommunityIcon
                         name="image"
                         size={24}
-                        onPress={() => setShowImageModal(true)}
+                        onPress={openImage}
                         style={styles.icon}
                     />
                 )}
-                {!item.image &&
+                {!item.imageEtag &&
                     <CommunityIcon
                         name="image-plus"
                         size={24}
@@ -145,11 +151,11 @@ const TransactionComponent: React.FC<TransactionProps> = ({ item}) => {
             >
                 <TouchableWithoutFeedback onPress={() => setShowImageModal(false)}>
                     <View style={styles.imageModalContainer}>
-                        <Image
-                            source={{ uri: `data:image/jpeg;base64,${item.image}` }}
+                        {imageSource && <Image
+                            source={imageSource}
                             style={styles.fullImage}
                             resizeMode="contain"
-                        />
+                        />}
                         <CommunityIcon
                             name="image-remove"
                             size={40}
@@ -162,7 +168,7 @@ const TransactionComponent: React.FC<TransactionProps> = ({ item}) => {
                                     {
                                         text: 'Eliminar',
                                         onPress: async () => {
-                                            const updatedTransaction: Transaction = { ...item, image: null };
+                                            const updatedTransaction: Transaction = { ...item, image: null, imageEtag: null };
                                             const data = await transactionService.updateTransaction(updatedTransaction);
                                             appStore.updateTransaction(data.transaction);
                                             setShowImageModal(false);
@@ -74,7 +74,7 @@ const TransactionForm: React.FC<TransactionProps> = ({ item, showModal}) => {
     const [category, setCategory] = useState(item?.category || '');
     const [description, setDescription] = useState(item?.description || '');
     const [date, setDate] = useState(item?.date ? parseDate(item.date) : new Date(new Date().setHours(new Date().getHours() - 3)));
-    const [image, setImage] = useState(item?.image || null);
+    const [image, setImage] = useState<string | null>(null);
     const [showDatePicker, setShowDatePicker] = useState(false);
     const editing = !!item;
 
@@ -93,12 +93,14 @@ const TransactionForm: React.FC<TransactionProps> = ({ item, showModal}) => {
         //TODO: Bug: cuando se carga la fecha se carga con EST y no EST-3
         const transaction: Transaction = {
             id: item?.id || 0,
-            amount: parsedAmount,
+            // El backend guarda centavos exactos y rechaza montos con más de dos decimales
+            amount: Math.round(parsedAmount * 100) / 100,
             type,
             category: category.toLowerCase(),
             date: date.toISOString().replace('T', ' ').substring(0, 19),
             description,
             image,
+            imageEtag: item?.imageEtag,
             userId: appStore.user?.id || 0,
         };
 
@@ -169,7 +171,7 @@ const TransactionForm: React.FC<TransactionProps> = ({ item, showModal}) => {
                 style={styles.input}
             />
             <Button
-                title={image ? "Change Image" : "Add Image"}
+                title={image || item?.imageEtag ? "Change Image" : "Add Image"}
                 onPress={pickImage}
             />
             {image && (
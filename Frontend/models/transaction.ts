@@ -1,10 +1,13 @@
 export interface Transaction {
     id: number;
     amount: number;
+    currency?: string;
     type: string;
     category: string;
     date: string;
     description?: string;
-    userId: number;
+    userId?: number;
     image?: string | null;
+    imageEtag?: string | null;
+    imageSize?: number | null;
   }
\ No newline at end of file
@@ -5,6 +5,20 @@ import appStore from '@/store/app.store';
 
 let apiInstance: AxiosInstance;
 let tokenCache: string | null = null; // Cache en memoria para evitar múltiples lecturas de AsyncStorage
+// El refresh token rota en cada uso: los 401 simultáneos comparten una sola renovación
+let refreshPromise: Promise<string> | null = null;
+
+const refreshAccessToken = (): Promise<string> => {
+  if (!refreshPromise) {
+    refreshPromise = axios
+      .post(`${env.API_URL}/auth/refreshToken`, {}, { withCredentials: true })
+      .then((response) => response.data.accessToken as string)
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
 
 const createApiInstance = async (): Promise<AxiosInstance> => {
 
@@ -43,8 +57,7 @@ const createApiInstance = async (): Promise<AxiosInstance> => {
         console.log('⚠️ Token expirado, intentando renovar...');
 
         try {
-          const refreshResponse = await axios.post(`${env.API_URL}/auth/refreshToken`, {}, { withCredentials: true });
-          const newAccessToken = refreshResponse.data.accessToken;
+          const newAccessToken = await refreshAccessToken();
 
           // Guardar el nuevo Access Token y actualizar `tokenCache`
           await saveData('authToken', newAccessToken);
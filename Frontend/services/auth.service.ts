@@ -24,6 +24,10 @@ const authService = {
       return { accessToken, user };
     } catch (error: any) {
       console.error('❌ Error en login:', error.response?.data || error.message);
+      if (error.response?.status === 429) {
+        const retryAfter = error.response.headers?.['retry-after'];
+        throw new Error(`Demasiados intentos. Probá de nuevo en ${retryAfter || 'unos'} segundos.`);
+      }
       throw new Error(error.response?.data?.message || 'Error al iniciar sesión.');
     }
   },
@@ -1,10 +1,65 @@
 import { Transaction } from '@/models/transaction';
 import createApiInstance from './api.service';
+import env from '@/utils/env';
+import { getData } from './StorageManager.service';
+
+// Última respuesta de cada GET condicional; se reutiliza cuando el servidor responde 304 Not Modified
+const conditionalCache = new Map<string, { etag: string, data: any }>();
+
+const getConditional = async (url: string, accept?: string) => {
+    const api = await createApiInstance();
+    const cached = conditionalCache.get(url);
+    const response = await api.get(url, {
+        headers: {
+            ...(accept ? { Accept: accept } : {}),
+            ...(cached ? { 'If-None-Match': cached.etag } : {}),
+        },
+        validateStatus: status => (status >= 200 && status < 300) || status === 304,
+    });
+    if (response.status === 304 && cached) {
+        return cached.data;
+    }
+    if (response.headers.etag) {
+        conditionalCache.set(url, { etag: response.headers.etag, data: response.data });
+    }
+    return response.data;
+};
+
+// /transactions/mine en columnas: un arreglo por campo y cada nombre de categoría se envía una sola vez
+const COLUMNAR_JSON = 'application/vnd.ahorrapp.columnar+json';
+
+const fromColumns = (columns: any): Transaction[] =>
+    columns.id.map((id: number, i: number) => ({
+        id,
+        type: columns.type[i],
+        category: columns.categories[columns.category[i]],
+        amount: columns.amount[i],
+        currency: columns.currency[i],
+        description: columns.description[i] ?? undefined,
+        date: columns.date[i],
+        imageEtag: columns.imageEtag[i],
+        imageSize: columns.imageSize[i],
+    }));
 
 const transactionService = {
     getTransactionsByUser: async () => {
+        const data = await getConditional('/transactions/mine', COLUMNAR_JSON);
+        return { transactions: fromColumns(data.transactions) };
+    },
+
+    getChanges: async (since?: string | null) => {
         const api = await createApiInstance();
-        const response = await api.get('/transactions/mine');
+        const response = await api.get('/transactions/changes', { params: { since: since ?? undefined } });
+        return response.data;
+    },
+
+    // Búsqueda en el servidor; todos los filtros son opcionales y los resultados se paginan con nextCursor
+    searchTransactions: async (filters: {
+        q?: string, type?: string, minAmount?: number, maxAmount?: number,
+        from?: string, to?: string, cursor?: string | null, limit?: number
+    }) => {
+        const api = await createApiInstance();
+        const response = await api.get('/transactions/search', { params: { ...filters, cursor: filters.cursor ?? undefined } });
         return response.data;
     },
 
@@ -28,12 +83,30 @@ const transactionService = {
         return response.data;
     },
 
-    getCategories: async () => {
+    // 'thumbnail' devuelve la miniatura generada por el servidor, o la original mientras no está lista
+    getImageSource: async (transaction: Transaction, variant: 'original' | 'thumbnail' = 'original') => {
+        const token = await getData('authToken');
+        return {
+            uri: `${env.API_URL}/transactions/${transaction.id}/image?variant=${variant}&v=${transaction.imageEtag}`,
+            headers: { Authorization: `Bearer ${token}` },
+        };
+    },
+
+    // Con currency, la respuesta incluye "converted": los totales convertidos en el servidor
+    getStatistics: async (from?: string, to?: string, currency?: string) => {
         const api = await createApiInstance();
-        const response = await api.get('/transactions/categories');
+        const response = await api.get('/transactions/stats', { params: { from, to, currency } });
         return response.data;
     },
 
+    getCategories: async () => {
+        return getConditional('/transactions/categories');
+    },
+
+    clearCache: () => {
+        conditionalCache.clear();
+    },
+
     changeCategoriesTo: async (newCategory: string, oldCategories: string[]) => {
         newCategory = newCategory.toLowerCase();
         oldCategories = oldCategories.map(category => category.toLowerCase());
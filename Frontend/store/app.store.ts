@@ -14,6 +14,7 @@ class AppStore {
     selectedScreen: 'Transactions' | 'Statistics' | 'Category Manager' = 'Transactions';
     user: User | null = null;
     transactions: Transaction[] = [];
+    syncToken: string | null = null;
     categories: string[] = [];
     loading = true;
     serverStatus: number | null = null;
@@ -69,15 +70,13 @@ class AppStore {
                     }
                     this.notify();
 
-                    const [userInfo, transactionsData, categoriesData] = await Promise.all([
+                    const [userInfo, , categoriesData] = await Promise.all([
                         authService.getUserInfo(),
-                        transactionService.getTransactionsByUser(),
+                        this.syncChanges(),
                         transactionService.getCategories()
                     ]);
 
                     this.user = userInfo;
-                    transactionsData.transactions.sort(this.sortDates);
-                    this.transactions = transactionsData.transactions;
                     this.categories = categoriesData.categories;
                 }
             } catch (error) {
@@ -188,13 +187,11 @@ class AppStore {
             this.loading = true;
             this.notify();
 
-            const [transactionsData, categoriesData] = await Promise.all([
-                transactionService.getTransactionsByUser(),
+            const [, categoriesData] = await Promise.all([
+                this.syncChanges(),
                 transactionService.getCategories()
             ]);
 
-            transactionsData.transactions.sort(this.sortDates);
-            this.transactions = transactionsData.transactions;
             this.categories = categoriesData.categories;
         } catch (error) {
             console.error('Error al recargar los datos:', error);
@@ -204,8 +201,36 @@ class AppStore {
         }
     }
 
+    // Pide páginas de /transactions/changes hasta que el servidor indica que no quedan más
+    private async syncChanges() {
+        let changes;
+        do {
+            changes = await transactionService.getChanges(this.syncToken);
+            this.applyChanges(changes);
+        } while (changes.hasMore);
+    }
+
+    // Aplica una respuesta de /transactions/changes: las filas cambiadas reemplazan a las locales por id y las borradas se quitan
+    private applyChanges(changes: { transactions: Transaction[], deleted: number[], fullResync: boolean, hasMore: boolean, syncToken: string }) {
+        if (changes.fullResync) {
+            this.transactions = changes.transactions;
+        } else {
+            const replaced = new Set([...changes.deleted, ...changes.transactions.map(t => t.id)]);
+            const deleted = new Set(changes.deleted);
+            this.transactions = [
+                ...this.transactions.filter(t => !replaced.has(t.id)),
+                ...changes.transactions.filter(t => !deleted.has(t.id)),
+            ];
+        }
+        this.transactions.sort(this.sortDates);
+        this.syncToken = changes.syncToken;
+    }
+
     logout() {
         this.isAuthenticated = false;
+        this.syncToken = null;
+        this.transactions = [];
+        transactionService.clearCache();
         clearStorage();
         this.notify();
     }